@@ -1,11 +1,15 @@
 package com.example.mscatalogo.Controller;
 
+import com.example.mscatalogo.Dto.CatalogChangesDto;
 import com.example.mscatalogo.Dto.CreateProductDto;
 import com.example.mscatalogo.Dto.ProductDto;
 import com.example.mscatalogo.Service.ProductService;
+import com.example.mscatalogo.Service.SkuGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -15,10 +19,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ProductController {
     private final ProductService productService;
+    private final SkuGenerator skuGenerator;
 
     @PostMapping
     public ResponseEntity<ProductDto> create(@RequestBody CreateProductDto dto) {
-        return ResponseEntity.ok(productService.create(dto));
+        return ResponseEntity.ok(productService.create(skuGenerator.assignIfMissing(dto)));
     }
 
     @GetMapping("/{id}")
@@ -26,14 +31,75 @@ public class ProductController {
         return ResponseEntity.ok(productService.findById(id));
     }
 
+    // GET /products/typeahead?q=cer&limit=10
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<ProductDto>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.typeahead(q, limit));
+    }
+
+    // 👉 Multi-get: GET /products/by-skus?skus=PRD-000001,PRD-000002
+    @GetMapping("/by-skus")
+    public ResponseEntity<?> getBySkus(@RequestParam List<String> skus) {
+        return bySkus(skus);
+    }
+
+    // Misma consulta con la lista en el cuerpo (listas que no caben en la URL)
+    @PostMapping("/by-skus")
+    public ResponseEntity<?> postBySkus(@RequestBody List<String> skus) {
+        return bySkus(skus);
+    }
+
+    // ETag = versión en la que cambió el producto; con If-None-Match igual responde 304
     @GetMapping("/sku/{sku}")
-    public ResponseEntity<ProductDto> getBySku(@PathVariable String sku) {
-        return ResponseEntity.ok(productService.findBySku(sku));
+    public ResponseEntity<ProductDto> getBySku(@PathVariable String sku, WebRequest request) {
+        ProductDto dto = productService.findBySku(sku);
+        String etag = etag(dto.version());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(dto);
     }
 
+    // ETag = versión del catálogo; con If-None-Match igual responde 304 sin cuerpo.
+    // La versión se lee ANTES que la lista: si algo cambia en medio, el próximo ETag será distinto.
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<List<ProductDto>> getAll(WebRequest request) {
+        String etag = etag(productService.currentVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(productService.findAll());
+    }
+
+    // 👉 Listado paginado: GET /products?size=50&sort=SKU&category=Bebidas&active=true&cursor=PRD-000120
+    //    o por número de página: GET /products?size=50&page=3&sort=NAME
+    @GetMapping(params = "size")
+    public ResponseEntity<?> getPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "ID") ProductService.SortField sort
+    ) {
+        try {
+            return ResponseEntity.ok(productService.findPage(size, cursor, page, category, active, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 🔄 Solo lo que cambió: GET /products/changes?since=120&limit=500  (since=-1 → todo el catálogo)
+    //    Con hasMore=true se vuelve a pedir con since=version hasta vaciar el feed (limit máx. 1000)
+    @GetMapping("/changes")
+    public ResponseEntity<CatalogChangesDto> changes(
+            @RequestParam(defaultValue = "-1") long since,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        return ResponseEntity.ok(productService.changesSince(since, limit));
     }
 
     @PutMapping("/{id}")
@@ -53,4 +119,16 @@ public class ProductController {
         return ResponseEntity.ok(productService.changeActive(id, active != null ? active : true));
     }
 
+    private ResponseEntity<?> bySkus(List<String> skus) {
+        try {
+            return ResponseEntity.ok(productService.findBySkus(skus));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private String etag(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.mscatalogo.Dto;
+
+import java.util.List;
+
+// Productos modificados después de la versión pedida, de a una página.
+// version es la última versión servida: el cliente la envía como `since` la próxima vez.
+// hasMore = true → quedan cambios, pedir de nuevo enseguida con since=version.
+public record CatalogChangesDto(
+        Long version,
+        List<ProductDto> changes,
+        boolean hasMore
+) {}
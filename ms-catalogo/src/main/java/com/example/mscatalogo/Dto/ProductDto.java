@@ -9,5 +9,6 @@ public record ProductDto(
         String description,
         Boolean active,
         Integer unitsPerBox,
-        Integer unitsPerPack
+        Integer unitsPerPack,
+        Long version            // versión del catálogo en la que cambió
 ) {}
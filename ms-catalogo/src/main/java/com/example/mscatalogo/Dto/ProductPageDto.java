@@ -0,0 +1,13 @@
+package com.example.mscatalogo.Dto;
+
+import java.util.List;
+
+// Página de productos.
+// - Por keyset (sin `page`): se envía nextCursor como `cursor` para la siguiente.
+// - Por número de página (`page`): se envía nextPage como `page`.
+// Ambos son null cuando no hay más resultados.
+public record ProductPageDto(
+        List<ProductDto> items,
+        String nextCursor,
+        Integer nextPage
+) {}
@@ -0,0 +1,19 @@
+package com.example.mscatalogo.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Fila única (id = 1) con la versión del catálogo.
+// Cada alta/edición/cambio de estado de un producto la incrementa en su transacción.
+@Data
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version = 0L;
+}
@@ -3,9 +3,20 @@ package com.example.mscatalogo.Entity;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = {
+                @Index(name = "idx_products_change_version", columnList = "change_version"),
+                // filtros del listado paginado (sku ya tiene índice por ser único)
+                @Index(name = "idx_products_category_active", columnList = "category, active, sku"),
+                @Index(name = "idx_products_active", columnList = "active, sku"),
+                @Index(name = "idx_products_name", columnList = "name")
+        }
+)
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,4 +36,10 @@ public class Product {
     private String category;
     private String description;
     private Boolean active = true;
+
+    // Versión del catálogo en la que cambió por última vez (feed /products/changes)
+    @Column(name = "change_version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long changeVersion = 0L;
+
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.mscatalogo.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Contador de SKUs por prefijo (hi/lo).
+// Cada instancia de ms-catalogo reserva un bloque [nextValue, nextValue + tamaño) y lo reparte en memoria.
+@Data
+@Entity
+@Table(name = "sku_block")
+public class SkuBlock {
+    @Id
+    @Column(length = 20)
+    private String prefix;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
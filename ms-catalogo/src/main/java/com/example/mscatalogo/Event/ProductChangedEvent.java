@@ -0,0 +1,6 @@
+package com.example.mscatalogo.Event;
+
+import com.example.mscatalogo.Dto.ProductDto;
+
+// Se publica dentro de la transacción de alta/edición/cambio de estado; los listeners lo reciben tras el commit.
+public record ProductChangedEvent(ProductDto product) {}
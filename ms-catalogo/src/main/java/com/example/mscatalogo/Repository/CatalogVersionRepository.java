@@ -0,0 +1,21 @@
+package com.example.mscatalogo.Repository;
+
+import com.example.mscatalogo.Entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    @Modifying
+    @Query(value = "insert ignore into catalog_version (id, version) values (1, 0)", nativeQuery = true)
+    int initialize();
+
+    // 👉 El UPDATE bloquea la fila hasta el commit: las versiones se confirman en orden
+    @Modifying
+    @Query("update CatalogVersion c set c.version = c.version + 1 where c.id = 1")
+    int increment();
+
+    @Query("select c.version from CatalogVersion c where c.id = 1")
+    Long current();
+}
@@ -1,13 +1,64 @@
 package com.example.mscatalogo.Repository;
 
 import com.example.mscatalogo.Entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySku(String sku);
 
-    // Para generar un SKU incremental basado en el último ID
-    Optional<Product> findTopByOrderByIdDesc();
+    // Multi-get: WHERE sku IN (...) (el llamador parte la lista en bloques)
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // Feed de cambios: productos modificados después de una versión (de a una página)
+    List<Product> findByChangeVersionGreaterThanOrderByChangeVersionAsc(Long version, Pageable pageable);
+
+    // 👉 Keyset por id: WHERE id > cursor ORDER BY id (usa la PK, sin OFFSET)
+    @Query("""
+           select p from Product p
+           where (:category is null or p.category = :category)
+             and (:active is null or p.active = :active)
+             and (:afterId is null or p.id > :afterId)
+           order by p.id asc
+           """)
+    List<Product> findPageById(
+            @Param("category") String category,
+            @Param("active") Boolean active,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // 👉 Keyset por SKU (único): WHERE sku > cursor ORDER BY sku
+    @Query("""
+           select p from Product p
+           where (:category is null or p.category = :category)
+             and (:active is null or p.active = :active)
+             and (:afterSku is null or p.sku > :afterSku)
+           order by p.sku asc
+           """)
+    List<Product> findPageBySku(
+            @Param("category") String category,
+            @Param("active") Boolean active,
+            @Param("afterSku") String afterSku,
+            Pageable pageable
+    );
+
+    // Por número de página (cualquier orden, p. ej. nombre); el orden viene en el Pageable
+    @Query("""
+           select p from Product p
+           where (:category is null or p.category = :category)
+             and (:active is null or p.active = :active)
+           """)
+    Slice<Product> findSlice(
+            @Param("category") String category,
+            @Param("active") Boolean active,
+            Pageable pageable
+    );
 }
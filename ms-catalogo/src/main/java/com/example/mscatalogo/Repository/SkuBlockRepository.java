@@ -0,0 +1,30 @@
+package com.example.mscatalogo.Repository;
+
+import com.example.mscatalogo.Entity.SkuBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SkuBlockRepository extends JpaRepository<SkuBlock, String> {
+
+    // Primera vez: arranca después del mayor SKU "PRD-n" (o id) ya existente
+    @Modifying
+    @Query(value = """
+           insert ignore into sku_block (prefix, next_value)
+           select :prefix, greatest(
+                    coalesce((select max(id) from products), 0),
+                    coalesce((select max(cast(substring(sku, char_length(:prefix) + 2) as unsigned))
+                              from products where sku regexp concat('^', :prefix, '-[0-9]+$')), 0)
+                  ) + 1
+           """, nativeQuery = true)
+    int initialize(@Param("prefix") String prefix);
+
+    // 👉 El UPDATE bloquea la fila: dos instancias nunca reciben el mismo rango
+    @Modifying
+    @Query("update SkuBlock b set b.nextValue = b.nextValue + :size where b.prefix = :prefix")
+    int advance(@Param("prefix") String prefix, @Param("size") long size);
+
+    @Query("select b.nextValue from SkuBlock b where b.prefix = :prefix")
+    Long nextValue(@Param("prefix") String prefix);
+}
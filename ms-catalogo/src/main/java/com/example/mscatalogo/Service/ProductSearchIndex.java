@@ -0,0 +1,47 @@
+package com.example.mscatalogo.Service;
+
+import com.example.commons.search.PrefixIndex;
+import com.example.mscatalogo.Dto.ProductDto;
+import com.example.mscatalogo.Event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+// Autocompletar productos por prefijo de SKU o de nombre (índice en memoria de ms-commons).
+// - Los cambios locales entran tras el commit (un rollback no deja entradas fantasma).
+// - ProductService aplica periódicamente el feed de cambios desde `version`, así aparecen
+//   también los productos creados o editados en otras instancias.
+@Component
+public class ProductSearchIndex {
+
+    private final PrefixIndex<ProductDto> index =
+            new PrefixIndex<>(ProductDto::id, ProductDto::sku, ProductDto::name);
+
+    // Versión del catálogo ya aplicada (-1 = sin carga inicial)
+    private volatile long version = -1;
+
+    public void load(List<ProductDto> products, long version) {
+        index.load(products);
+        this.version = version;
+    }
+
+    public void apply(List<ProductDto> changes, long version) {
+        changes.forEach(index::put);
+        this.version = Math.max(this.version, version);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<ProductDto> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        index.put(event.product());
+    }
+}
@@ -1,26 +1,116 @@
 package com.example.mscatalogo.Service;
 
+import com.example.mscatalogo.Dto.CatalogChangesDto;
 import com.example.mscatalogo.Dto.CreateProductDto;
 import com.example.mscatalogo.Dto.ProductDto;
+import com.example.mscatalogo.Dto.ProductPageDto;
 import com.example.mscatalogo.Entity.Product;
+import com.example.mscatalogo.Event.ProductChangedEvent;
+import com.example.mscatalogo.Repository.CatalogVersionRepository;
 import com.example.mscatalogo.Repository.ProductRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    private static final int MAX_TYPEAHEAD = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BY_SKUS = 5000;
+    private static final int IN_CHUNK = 1000;
+    private static final int MAX_CHANGES = 1000;
+
+    public enum SortField {
+        ID, SKU, NAME
+    }
+
     private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Carga inicial del índice de autocompletado (y fila de versión del catálogo).
+    // La versión se lee antes que los productos: lo que cambie entre medio lo trae el feed.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadSearchIndex() {
+        catalogVersionRepository.initialize();
+        long version = currentVersion();
+        searchIndex.load(findAll(), version);
+    }
+
+    // 🔄 Cambios hechos en otras instancias: se aplica el feed desde la versión del índice
+    @Scheduled(fixedDelayString = "${catalog.search.sync-ms:5000}", initialDelayString = "${catalog.search.sync-ms:5000}")
+    public void syncSearchIndex() {
+        long since = searchIndex.version();
+        if (since < 0) {
+            return;   // todavía sin carga inicial
+        }
+        CatalogChangesDto changes;
+        do {
+            changes = changesSince(since, MAX_CHANGES);
+            searchIndex.apply(changes.changes(), changes.version());
+            since = changes.version();
+        } while (changes.hasMore());
+    }
+
+    public long currentVersion() {
+        Long version = catalogVersionRepository.current();
+        return version != null ? version : 0L;
+    }
 
+    // 🔄 Productos que cambiaron después de `since` (alta, edición o cambio de estado), hasta `limit`.
+    //    Cada cambio tiene su propia versión (el UPDATE de catalog_version serializa los commits),
+    //    así que cortar la página en la última versión servida no pierde ni repite productos.
+    public CatalogChangesDto changesSince(long since, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_CHANGES));
+        // La versión actual se lee ANTES: todo cambio con versión <= current ya está confirmado
+        long current = currentVersion();
+        List<Product> rows = productRepository.findByChangeVersionGreaterThanOrderByChangeVersionAsc(
+                since, PageRequest.of(0, size + 1)
+        );
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        long version = current;
+        if (!rows.isEmpty()) {
+            long last = rows.get(rows.size() - 1).getChangeVersion();
+            version = hasMore ? last : Math.max(current, last);
+        }
+        List<ProductDto> changes = rows.stream().map(this::toDto).toList();
+        return new CatalogChangesDto(version, changes, hasMore);
+    }
+
+    // 🔍 Autocompletar por prefijo de SKU o nombre (en memoria)
+    public List<ProductDto> typeahead(String q, int limit) {
+        return searchIndex.search(q, Math.max(1, Math.min(limit, MAX_TYPEAHEAD)));
+    }
+
+    @Transactional
     public ProductDto create(CreateProductDto dto) {
         Product product = new Product();
 
+        // El SKU ya viene asignado (SkuGenerator.assignIfMissing, fuera de esta transacción)
         String sku = dto.sku();
         if (sku == null || sku.isBlank()) {
-            sku = generateSku();
+            throw new IllegalArgumentException("El SKU es obligatorio");
         }
 
         product.setSku(sku);
@@ -34,10 +124,12 @@ public class ProductService {
         product.setUnitsPerPack(dto.unitsPerPack());
 
         product.setActive(true);
+        markChanged(product);
 
-        return toDto(productRepository.save(product));
+        return index(toDto(productRepository.save(product)));
     }
 
+    @Transactional
     public ProductDto update(Long id, CreateProductDto dto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -56,8 +148,22 @@ public class ProductService {
         // ✅ NUEVO
         product.setUnitsPerBox(dto.unitsPerBox());
         product.setUnitsPerPack(dto.unitsPerPack());
+        markChanged(product);
+
+        return index(toDto(productRepository.save(product)));
+    }
 
-        return toDto(productRepository.save(product));
+    // Sube la versión del catálogo (bloquea la fila hasta el commit) y la asigna al producto
+    private void markChanged(Product product) {
+        catalogVersionRepository.increment();
+        product.setChangeVersion(catalogVersionRepository.current());
+        product.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // El índice se actualiza tras el commit (ProductSearchIndex.onProductChanged)
+    private ProductDto index(ProductDto dto) {
+        eventPublisher.publishEvent(new ProductChangedEvent(dto));
+        return dto;
     }
 
     private ProductDto toDto(Product p) {
@@ -70,7 +176,8 @@ public class ProductService {
                 p.getDescription(),
                 p.getActive(),
                 p.getUnitsPerBox(),
-                p.getUnitsPerPack()
+                p.getUnitsPerPack(),
+                p.getChangeVersion()
         );
     }
 
@@ -87,30 +194,87 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    // 👉 Varios SKUs en una sola llamada: una consulta IN por cada bloque de IN_CHUNK.
+    //    Devuelve en el orden pedido, sin repetidos; los SKUs inexistentes se omiten.
+    public List<ProductDto> findBySkus(Collection<String> skus) {
+        List<String> distinct = skus.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+        if (distinct.size() > MAX_BY_SKUS) {
+            throw new IllegalArgumentException("Máximo " + MAX_BY_SKUS + " SKUs por consulta");
+        }
+
+        Map<String, ProductDto> bySku = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i += IN_CHUNK) {
+            productRepository.findBySkuIn(distinct.subList(i, Math.min(i + IN_CHUNK, distinct.size())))
+                    .forEach(p -> bySku.put(p.getSku(), toDto(p)));
+        }
+        return distinct.stream()
+                .map(bySku::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     public List<ProductDto> findAll() {
-        return productRepository.findAll().stream()
+        return productRepository.findAll(Sort.by("id")).stream()
                 .map(this::toDto)
                 .toList();
     }
 
 
 
+    // 👉 Listado paginado y filtrable.
+    //    Sin `page` usa keyset (sort ID o SKU); con `page` usa número de página (cualquier orden).
+    public ProductPageDto findPage(
+            int size, String cursor, Integer page, String category, Boolean active, SortField sort
+    ) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String cat = (category == null || category.isBlank()) ? null : category;
+
+        if (page != null) {
+            Sort order = switch (sort) {
+                case SKU -> Sort.by("sku");
+                case NAME -> Sort.by("name").and(Sort.by("id"));
+                default -> Sort.by("id");
+            };
+            Slice<Product> slice = productRepository.findSlice(cat, active, PageRequest.of(Math.max(page, 0), limit, order));
+            List<ProductDto> items = slice.getContent().stream().map(this::toDto).toList();
+            return new ProductPageDto(items, null, slice.hasNext() ? slice.getNumber() + 1 : null);
+        }
+
+        List<Product> rows;
+        if (sort == SortField.SKU) {
+            rows = productRepository.findPageBySku(cat, active, cursor, PageRequest.of(0, limit));
+        } else if (sort == SortField.ID) {
+            Long afterId;
+            try {
+                afterId = cursor != null ? Long.valueOf(cursor) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("cursor inválido para sort=ID");
+            }
+            rows = productRepository.findPageById(cat, active, afterId, PageRequest.of(0, limit));
+        } else {
+            throw new IllegalArgumentException("sort=NAME requiere paginar con 'page'");
+        }
+
+        List<ProductDto> items = rows.stream().map(this::toDto).toList();
+        String next = null;
+        if (rows.size() == limit) {
+            Product last = rows.get(rows.size() - 1);
+            next = sort == SortField.SKU ? last.getSku() : String.valueOf(last.getId());
+        }
+        return new ProductPageDto(items, next, null);
+    }
+
+    @Transactional
     public ProductDto changeActive(Long id, boolean active) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
         product.setActive(active);
-        return toDto(productRepository.save(product));
-    }
-
-    // ==== NUEVO MÉTODO PARA SKU ====
-    private String generateSku() {
-        long nextNumber = 1L;
-        Optional<Product> last = productRepository.findTopByOrderByIdDesc();
-        if (last.isPresent() && last.get().getId() != null) {
-            nextNumber = last.get().getId() + 1;
-        }
-        // Ej: PRD-000001
-        return String.format("PRD-%06d", nextNumber);
+        markChanged(product);
+        return index(toDto(productRepository.save(product)));
     }
 }
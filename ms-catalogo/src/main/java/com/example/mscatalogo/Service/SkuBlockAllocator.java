@@ -0,0 +1,25 @@
+package com.example.mscatalogo.Service;
+
+import com.example.mscatalogo.Repository.SkuBlockRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+// Reserva rangos de SKU en su propia transacción (corta): el bloqueo de la fila
+// no se mantiene mientras dura el alta o la importación que pidió el SKU.
+@Service
+@RequiredArgsConstructor
+public class SkuBlockAllocator {
+
+    private final SkuBlockRepository skuBlockRepository;
+
+    // Devuelve el primer valor del rango [inicio, inicio + size)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public long reserve(String prefix, int size) {
+        if (skuBlockRepository.advance(prefix, size) == 0) {
+            skuBlockRepository.initialize(prefix);
+            skuBlockRepository.advance(prefix, size);
+        }
+        return skuBlockRepository.nextValue(prefix) - size;
+    }
+}
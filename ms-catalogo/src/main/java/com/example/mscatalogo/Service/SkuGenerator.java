@@ -0,0 +1,59 @@
+package com.example.mscatalogo.Service;
+
+import com.example.mscatalogo.Dto.CreateProductDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Generador de SKUs "PRD-000001" sin consulta por producto.
+// Solo se va a la BD cuando se agota el bloque reservado (catalog.sku.block-size).
+// Con varias instancias los SKUs no chocan, aunque pueden quedar huecos al reiniciar.
+@Component
+@RequiredArgsConstructor
+public class SkuGenerator {
+
+    private static final String PREFIX = "PRD";
+
+    private final SkuBlockAllocator allocator;
+
+    @Value("${catalog.sku.block-size:100}")
+    private int blockSize;
+
+    // ReentrantLock y no synchronized: reserve() va a la BD y, con hilos virtuales (perfil
+    // "virtual"), un bloque synchronized fijaría el hilo portador durante esa espera
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextValue;
+    private long limit;
+
+    // 👉 Completa el SKU si el alta no trae uno. Se llama antes de abrir la transacción del alta:
+    //    reserve() usa REQUIRES_NEW y, dentro de otra transacción, pediría una segunda conexión
+    //    del pool mientras la primera sigue tomada.
+    public CreateProductDto assignIfMissing(CreateProductDto dto) {
+        if (dto.sku() != null && !dto.sku().isBlank()) {
+            return dto;
+        }
+        return new CreateProductDto(
+                next(), dto.name(), dto.unit(), dto.category(),
+                dto.description(), dto.unitsPerBox(), dto.unitsPerPack()
+        );
+    }
+
+    public String next() {
+        lock.lock();
+        try {
+            if (nextValue >= limit) {
+                nextValue = allocator.reserve(PREFIX, blockSize);
+                limit = nextValue + blockSize;
+            }
+            return format(nextValue++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String format(long value) {
+        return String.format("%s-%06d", PREFIX, value);
+    }
+}
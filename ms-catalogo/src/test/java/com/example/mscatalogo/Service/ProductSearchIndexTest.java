@@ -0,0 +1,64 @@
+package com.example.mscatalogo.Service;
+
+import com.example.mscatalogo.Dto.ProductDto;
+import com.example.mscatalogo.Event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.load(List.of(
+                product(1L, "PRD-000001", "Arroz Extra", 1L),
+                product(2L, "PRD-000002", "Aceite de Arroz", 2L),
+                product(3L, "PRD-000103", "Azúcar Rubia", 3L)), 3L);
+    }
+
+    @Test
+    void searchesBySkuNameAndWordPrefix() {
+        assertThat(ids(index.search("prd-0001", 10))).containsExactly(3L);
+        assertThat(ids(index.search("  ACEI ", 10))).containsExactly(2L);
+        assertThat(ids(index.search("arroz", 10))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void committedLocalChangeIsIndexed() {
+        index.onProductChanged(new ProductChangedEvent(product(3L, "PRD-000103", "Azúcar Blanca", 4L)));
+
+        assertThat(index.search("rubia", 10)).isEmpty();
+        assertThat(ids(index.search("blanca", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void changeFeedAddsRemoteProductsAndAdvancesVersion() {
+        index.apply(List.of(product(9L, "PRD-000009", "Sal de Maras", 7L)), 7L);
+
+        assertThat(ids(index.search("maras", 10))).containsExactly(9L);
+        assertThat(index.version()).isEqualTo(7L);
+
+        // Un feed viejo no hace retroceder la versión
+        index.apply(List.of(), 5L);
+        assertThat(index.version()).isEqualTo(7L);
+    }
+
+    @Test
+    void versionIsUnsetUntilFirstLoad() {
+        assertThat(new ProductSearchIndex().version()).isEqualTo(-1L);
+    }
+
+    private static ProductDto product(Long id, String sku, String name, Long version) {
+        return new ProductDto(id, sku, name, "UND", "ABARROTES", null, true, null, null, version);
+    }
+
+    private static List<Long> ids(List<ProductDto> rows) {
+        return rows.stream().map(ProductDto::id).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mscatalogo.Service;
+
+import com.example.mscatalogo.Dto.CreateProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SkuGeneratorTest {
+
+    private SkuBlockAllocator allocator;
+    private SkuGenerator generator;
+
+    // Simula sku_block.next_value: cada reserva devuelve el inicio del siguiente rango
+    private final AtomicLong nextValue = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        allocator = mock(SkuBlockAllocator.class);
+        when(allocator.reserve(eq("PRD"), anyInt())).thenAnswer(inv -> nextValue.getAndAdd(inv.<Integer>getArgument(1)));
+
+        generator = new SkuGenerator(allocator);
+        ReflectionTestUtils.setField(generator, "blockSize", 10);
+    }
+
+    @Test
+    void formatsSequentialSkusWithinABlock() {
+        assertThat(generator.next()).isEqualTo("PRD-000001");
+        assertThat(generator.next()).isEqualTo("PRD-000002");
+        verify(allocator, times(1)).reserve("PRD", 10);
+    }
+
+    @Test
+    void reservesANewBlockOnlyWhenTheCurrentOneIsUsedUp() {
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            skus.add(generator.next());
+        }
+
+        assertThat(skus.get(24)).isEqualTo("PRD-000025");
+        verify(allocator, times(3)).reserve("PRD", 10);
+    }
+
+    @Test
+    void continuesFromTheAllocatedStartWhenAnotherNodeTookTheNextBlock() {
+        generator.next();
+        nextValue.addAndGet(10);   // otro nodo reservó 11..20
+
+        for (int i = 0; i < 9; i++) {
+            generator.next();
+        }
+        assertThat(generator.next()).isEqualTo("PRD-000021");
+    }
+
+    @Test
+    void concurrentCallsNeverRepeatASku() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                futures.add(pool.submit(generator::next));
+            }
+            Set<String> skus = new HashSet<>();
+            for (Future<String> f : futures) {
+                skus.add(f.get());
+            }
+            assertThat(skus).hasSize(2_000);
+        } finally {
+            pool.shutdown();
+        }
+        verify(allocator, times(200)).reserve("PRD", 10);
+    }
+
+    @Test
+    void assignIfMissingFillsABlankSkuAndKeepsTheRest() {
+        CreateProductDto dto = new CreateProductDto(" ", "Cerveza", "UND", "Bebidas", null, 24, 6);
+
+        CreateProductDto assigned = generator.assignIfMissing(dto);
+
+        assertThat(assigned.sku()).isEqualTo("PRD-000001");
+        assertThat(assigned.name()).isEqualTo("Cerveza");
+        assertThat(assigned.unitsPerBox()).isEqualTo(24);
+        assertThat(assigned.unitsPerPack()).isEqualTo(6);
+    }
+
+    @Test
+    void assignIfMissingKeepsAGivenSkuWithoutReserving() {
+        CreateProductDto dto = new CreateProductDto("MANUAL-1", "Cerveza", "UND", null, null, null, null);
+
+        assertThat(generator.assignIfMissing(dto)).isSameAs(dto);
+        verify(allocator, never()).reserve(eq("PRD"), anyInt());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.commons.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+// Índice en memoria para autocompletar por prefijo de código (DNI, SKU...) o de nombre.
+// Claves ordenadas "texto-normalizado \0 id" → un prefijo es un rango del mapa.
+// Además del nombre completo se indexa cada palabra del nombre.
+public class PrefixIndex<T> {
+
+    private static final char SEP = '\u0000';
+
+    private final Function<T, ?> idOf;
+    private final Function<T, String> codeOf;
+    private final Function<T, String> nameOf;
+
+    // Índice + mapa por id. Al recargar se arma uno nuevo y se publica de una vez:
+    // las búsquedas nunca ven el índice vacío o a medio llenar
+    private record State<T>(ConcurrentSkipListMap<String, T> index, Map<Object, T> byId) {
+        static <T> State<T> empty() {
+            return new State<>(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private volatile State<T> state = State.empty();
+
+    public PrefixIndex(Function<T, ?> idOf, Function<T, String> codeOf, Function<T, String> nameOf) {
+        this.idOf = idOf;
+        this.codeOf = codeOf;
+        this.nameOf = nameOf;
+    }
+
+    public synchronized void load(Collection<T> items) {
+        State<T> fresh = State.empty();
+        items.forEach(item -> put(fresh, item));
+        state = fresh;
+    }
+
+    // Alta o reemplazo (se quitan las claves de la versión anterior)
+    public synchronized void put(T item) {
+        put(state, item);
+    }
+
+    public int size() {
+        return state.byId().size();
+    }
+
+    // Máximo `limit` elementos cuyo código, nombre o alguna palabra del nombre empiece por `query`
+    public List<T> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Object, T> found = new LinkedHashMap<>();
+        for (T item : state.index().subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            found.putIfAbsent(idOf.apply(item), item);
+            if (found.size() >= limit) break;
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private void put(State<T> target, T item) {
+        T previous = target.byId().put(idOf.apply(item), item);
+        if (previous != null) {
+            keysOf(previous).forEach(target.index()::remove);
+        }
+        keysOf(item).forEach(k -> target.index().put(k, item));
+    }
+
+    private List<String> keysOf(T item) {
+        List<String> keys = new ArrayList<>();
+        String suffix = SEP + String.valueOf(idOf.apply(item));
+        String code = codeOf.apply(item);
+        if (code != null) {
+            keys.add(normalize(code) + suffix);
+        }
+        String rawName = nameOf.apply(item);
+        if (rawName != null) {
+            String name = normalize(rawName);
+            keys.add(name + suffix);
+            for (String word : name.split("\\s+")) {
+                if (!word.isEmpty() && !name.startsWith(word)) {
+                    keys.add(word + suffix);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.commons.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+// Activa ConcurrencyLimitFilter en cualquier servicio web que tenga ms-commons y defina
+// server.concurrency.max-in-flight (hoy, solo los perfiles "virtual").
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "server.concurrency.max-in-flight")
+public class ConcurrencyLimitAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            @Value("${server.concurrency.max-in-flight}") int maxInFlight,
+            @Value("${server.concurrency.acquire-timeout-ms:1000}") long acquireTimeoutMs
+    ) {
+        return new ConcurrencyLimitFilter(maxInFlight, acquireTimeoutMs);
+    }
+}
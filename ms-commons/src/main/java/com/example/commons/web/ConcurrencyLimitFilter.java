@@ -0,0 +1,61 @@
+package com.example.commons.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Tope de peticiones en curso (server.concurrency.max-in-flight, perfil "virtual" de cada servicio).
+// Con hilos virtuales Tomcat acepta miles de peticiones a la vez y todas acabarían esperando
+// conexión en Hikari: el límite real es el pool, no los hilos. Aquí esperan como mucho
+// acquire-timeout-ms por un permiso y, si no lo consiguen, reciben 503 + Retry-After en lugar
+// de un 500 por timeout de conexión. tomcat.max-connections solo limita conexiones TCP aceptadas.
+// Esperar un permiso no ocupa el hilo portador (el hilo virtual se desmonta).
+// Lo registra ConcurrencyLimitAutoConfiguration.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public ConcurrencyLimitFilter(int maxInFlight, long acquireTimeoutMs) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("server.concurrency.max-in-flight debe ser mayor que 0");
+        }
+        this.permits = new Semaphore(maxInFlight, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servicio saturado, reintente en unos segundos");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Health checks y métricas no compiten por los permisos
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.commons.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private record Item(Long id, String code, String name) {}
+
+    private PrefixIndex<Item> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex<>(Item::id, Item::code, Item::name);
+        index.load(List.of(
+                new Item(1L, "A-001", "Arroz Extra"),
+                new Item(2L, "A-002", "Aceite de Arroz"),
+                new Item(3L, "B-103", "Azúcar Rubia")));
+    }
+
+    @Test
+    void searchesByCodeNameAndWordPrefixIgnoringCase() {
+        assertThat(ids(index.search("b-1", 10))).containsExactly(3L);
+        assertThat(ids(index.search("  ACEI ", 10))).containsExactly(2L);
+        assertThat(ids(index.search("rubia", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void itemMatchingSeveralKeysIsReturnedOnce() {
+        // "arroz" es el nombre de 1 y una palabra del nombre de 2
+        assertThat(ids(index.search("arroz", 10))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void limitAndBlankQuery() {
+        assertThat(index.search("a-", 1)).hasSize(1);
+        assertThat(index.search("   ", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+    }
+
+    @Test
+    void putReplacesKeysOfPreviousVersion() {
+        index.put(new Item(3L, "B-103", "Azúcar Blanca"));
+
+        assertThat(index.search("rubia", 10)).isEmpty();
+        assertThat(ids(index.search("blanca", 10))).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void loadReplacesWholeIndex() {
+        index.load(List.of(new Item(9L, "C-009", "Sal de Maras")));
+
+        assertThat(index.search("arroz", 10)).isEmpty();
+        assertThat(ids(index.search("maras", 10))).containsExactly(9L);
+    }
+
+    @Test
+    void searchesNeverSeeHalfLoadedIndexDuringReload() throws Exception {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            items.add(new Item(id, String.format("X-%06d", id), "Item " + id));
+        }
+        index.load(items);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            new Thread(() -> {
+                while (running.get()) {
+                    if (index.search("item", 50).size() < 50) {
+                        misses.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        for (int i = 0; i < 20; i++) {
+            index.load(items);
+        }
+        running.set(false);
+        done.await();
+
+        assertThat(misses).hasValue(0);
+    }
+
+    private static List<Long> ids(List<Item> rows) {
+        return rows.stream().map(Item::id).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.commons.web;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitFilterTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConcurrencyLimitAutoConfiguration.class));
+
+    @Test
+    void passesRequestsWhilePermitsAreAvailable() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(2, 50);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("/sales"), response, (req, res) -> calls.incrementAndGet());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(calls).hasValue(5);
+    }
+
+    @Test
+    void rejectsWith503AndRetryAfterWhenEveryPermitIsTaken() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Una petición ocupa el único permiso hasta que se libere el latch
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/sales"), new MockHttpServletResponse(), blockingChain(inside, release));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("/sales"), rejected, (req, res) -> {
+            throw new AssertionError("no debía llegar a la cadena");
+        });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        // Liberado el permiso, la siguiente pasa
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(request("/sales"), after, (req, res) -> { });
+        assertThat(after.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void actuatorRequestsDoNotNeedAPermit() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/sales"), new MockHttpServletResponse(), blockingChain(inside, release));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(request("/actuator/health"), health, (req, res) -> { });
+        assertThat(health.getStatus()).isEqualTo(200);
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void releasesThePermitWhenTheChainFails() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50);
+
+        assertThatThrownBy(() -> filter.doFilter(request("/sales"), new MockHttpServletResponse(), (req, res) -> {
+            throw new IllegalStateException("falló el controlador");
+        })).isInstanceOf(IllegalStateException.class);
+
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(request("/sales"), next, (req, res) -> { });
+        assertThat(next.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void autoConfigurationRegistersTheFilterOnlyWhenTheLimitIsSet() {
+        contextRunner.run(ctx -> assertThat(ctx).doesNotHaveBean(ConcurrencyLimitFilter.class));
+
+        contextRunner
+                .withPropertyValues("server.concurrency.max-in-flight=15", "server.concurrency.acquire-timeout-ms=500")
+                .run(ctx -> assertThat(ctx).hasSingleBean(ConcurrencyLimitFilter.class));
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+
+    private static FilterChain blockingChain(CountDownLatch inside, CountDownLatch release) {
+        return (req, res) -> {
+            inside.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.mscompras.Dto;
+
+public record StockItemResultDto(
+        String productSku,
+        String type,
+        Integer quantity,
+        Integer stockAfter,
+        String status,   // APPLIED / DUPLICATE / REJECTED
+        String message
+) {}
@@ -8,7 +8,8 @@ import lombok.Data;
 @Table(name = "purchase_items")
 public class PurchaseItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_item_seq")
+    @SequenceGenerator(name = "purchase_item_seq", sequenceName = "purchase_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
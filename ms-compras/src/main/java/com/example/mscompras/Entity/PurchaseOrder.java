@@ -12,7 +12,8 @@ import java.util.List;
 @Table(name = "purchase_orders")
 public class PurchaseOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_order_seq")
+    @SequenceGenerator(name = "purchase_order_seq", sequenceName = "purchase_order_seq", allocationSize = 50)
     private Long id;
 
     // 🔹 RELACIÓN CON SUPPLIER (FOREIGN KEY)
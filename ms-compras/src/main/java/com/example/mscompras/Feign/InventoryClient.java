@@ -1,6 +1,8 @@
 package com.example.mscompras.Feign;
 
 import com.example.mscompras.Dto.PurchaseEntryRequest;
+import com.example.mscompras.Dto.StockBatchResultDto;
+import com.example.mscompras.Dto.StockBatchUpdateDto;
 import com.example.mscompras.Dto.StockUpdateDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -14,4 +16,8 @@ public interface InventoryClient {
     // Ruta para actualizar el stock
     @PostMapping("/update")
     void updateStock(@RequestBody StockUpdateDto dto);
+
+    // Recepción completa de una orden en una sola llamada (resultado por SKU)
+    @PostMapping("/update-batch")
+    StockBatchResultDto updateStockBatch(@RequestBody StockBatchUpdateDto dto);
 }
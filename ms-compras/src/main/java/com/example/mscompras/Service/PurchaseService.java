@@ -10,10 +10,14 @@ import com.example.mscompras.Repository.PurchaseOrderRepository;
 import com.example.mscompras.Repository.SupplierRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -86,21 +90,46 @@ public class PurchaseService {
         order.setReceivedAt(LocalDateTime.now());
         purchaseOrderRepository.save(order);
 
-        // Actualizamos inventario en UNIDADES BASE
+        // Actualizamos inventario en UNIDADES BASE, agrupando por SKU
+        Map<String, Integer> unitsBySku = new LinkedHashMap<>();
         order.getItems().forEach(item -> {
             int unitsPerPackage = item.getUnitsPerPackage() != null ? item.getUnitsPerPackage() : 1;
             int qtyPackages = item.getQuantity() != null ? item.getQuantity() : 0;
-            int totalUnits = qtyPackages * unitsPerPackage;
-
-            StockUpdateDto stockUpdate = new StockUpdateDto(
-                    item.getProductSku(),
-                    totalUnits,
-                    StockUpdateDto.MovementType.ENTRADA,
-                    "PURCHASE-" + orderId,
-                    "Recepción de compra"
-            );
-            inventoryClient.updateStock(stockUpdate);
+            unitsBySku.merge(item.getProductSku(), qtyPackages * unitsPerPackage, Integer::sum);
         });
+
+        if (!unitsBySku.isEmpty()) {
+            String reference = "PURCHASE-" + orderId;
+            List<StockUpdateDto> stockUpdates = unitsBySku.entrySet().stream()
+                    .map(e -> new StockUpdateDto(
+                            e.getKey(),
+                            e.getValue(),
+                            StockUpdateDto.MovementType.ENTRADA,
+                            reference,
+                            "Recepción de compra"
+                    ))
+                    .toList();
+
+            // Una sola llamada a inventario para toda la entrega
+            StockBatchResultDto result = inventoryClient.updateStockBatch(
+                    new StockBatchUpdateDto(reference, "Recepción de compra", stockUpdates)
+            );
+
+            // 👉 Si inventario rechaza alguna línea la recepción NO se da por hecha: la excepción
+            //    hace rollback y la orden sigue PENDING. Las líneas que sí entraron quedan con la
+            //    clave PURCHASE-{id}:SKU, así que al reintentar vuelven como DUPLICATE (no se suman dos veces).
+            if (result != null && result.rejected() > 0) {
+                List<String> rejected = result.items().stream()
+                        .filter(r -> "REJECTED".equals(r.status()))
+                        .map(r -> r.productSku() + " (" + r.message() + ")")
+                        .toList();
+                System.err.println("⚠️ Recepción " + reference + " rechazada por inventario: " + rejected);
+                throw new ResponseStatusException(
+                        HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Inventario rechazó líneas de la compra " + orderId + ": " + String.join(", ", rejected)
+                );
+            }
+        }
         return toDto(order);
     }
 
@@ -0,0 +1,12 @@
+-- Ejecutar una sola vez en ms_compra al desplegar la versión con ids por secuencia
+-- en PurchaseOrder y PurchaseItem. MySQL no tiene secuencias: Hibernate las emula con una
+-- tabla (next_val) y el optimizador pooled reserva bloques de 50 ids.
+-- Se arranca por encima del mayor id existente para no chocar con los AUTO_INCREMENT previos.
+
+CREATE TABLE IF NOT EXISTS purchase_order_seq (next_val BIGINT);
+DELETE FROM purchase_order_seq;
+INSERT INTO purchase_order_seq (next_val) SELECT COALESCE(MAX(id), 0) + 100 FROM purchase_orders;
+
+CREATE TABLE IF NOT EXISTS purchase_item_seq (next_val BIGINT);
+DELETE FROM purchase_item_seq;
+INSERT INTO purchase_item_seq (next_val) SELECT COALESCE(MAX(id), 0) + 100 FROM purchase_items;
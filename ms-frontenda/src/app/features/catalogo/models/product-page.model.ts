@@ -0,0 +1,9 @@
+import { Product } from './product.model';
+
+export type ProductSort = 'ID' | 'SKU' | 'NAME';
+
+export interface ProductPage {
+  items: Product[];
+  nextCursor: string | null;
+  nextPage: number | null;
+}
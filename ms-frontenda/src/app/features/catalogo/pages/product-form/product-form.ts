@@ -1,8 +1,10 @@
 import { Component, OnInit } from '@angular/core';
 import { Router, ActivatedRoute } from '@angular/router';
+import { catchError, of, switchMap } from 'rxjs';
 import { ProductService } from '../../services/product';
 import { CreateProduct } from '../../models/create-product.model';
 import { Product } from '../../models/product.model';
+import { InventoryService } from '../../../inventario/services/inventory';
 
 @Component({
   selector: 'app-product-form',
@@ -33,6 +35,7 @@ export class ProductForm implements OnInit {
 
   constructor(
     private productService: ProductService,
+    private inventoryService: InventoryService,
     private router: Router,
     private route: ActivatedRoute
   ) {}
@@ -97,7 +100,11 @@ export class ProductForm implements OnInit {
         ? this.productService.update(this.id, dto) // PUT /products/{id}
         : this.productService.create(dto);         // POST /products
 
-    request$.subscribe({
+    // 👉 El listado lee la proyección de inventario: se sincroniza antes de volver a él
+    //    (si la sincronización falla, el ciclo programado la pone al día igual)
+    request$.pipe(
+      switchMap(() => this.inventoryService.syncCatalog().pipe(catchError(() => of(undefined))))
+    ).subscribe({
       next: () => {
         this.loading = false;
         this.router.navigate(['/catalogo/productos']);
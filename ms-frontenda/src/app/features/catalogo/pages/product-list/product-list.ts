@@ -3,7 +3,7 @@ import { Router } from '@angular/router';
 import { ProductService } from '../../services/product';
 import { Product } from '../../models/product.model';
 import {InventoryService} from '../../../inventario/services/inventory';
-import {Inventory} from '../../../inventario/models/inventory.model';
+import {CatalogStockPage} from '../../../inventario/models/catalog-stock.model';
 
 @Component({
   selector: 'app-product-list',
@@ -18,6 +18,11 @@ export class ProductList implements OnInit {
   error: string | null = null;
   search = '';
 
+  // 📄 Paginación por cursor (se cargan bloques de PAGE_SIZE)
+  private readonly PAGE_SIZE = 100;
+  nextCursor: string | null = null;
+  loadingMore = false;
+
 
   stockBySku: { [sku: string]: number } = {};
 
@@ -78,14 +83,13 @@ export class ProductList implements OnInit {
   loadProducts(): void {
     this.loading = true;
     this.error = null;
+    this.products = [];
+    this.stockBySku = {};
 
-    this.productService.getAll().subscribe({
-      next: (res) => {
-        this.products = res;
-        this.applyFilter();
+    this.inventoryService.getCatalogPage(this.PAGE_SIZE).subscribe({
+      next: (page) => {
+        this.addPage(page);
         this.loading = false;
-
-        this.loadStocks(); // 👈 AQUÍ
       },
       error: () => {
         this.error = 'No se pudieron cargar los productos';
@@ -93,27 +97,32 @@ export class ProductList implements OnInit {
       },
     });
   }
-  // 👇 NUEVO
-  loadStocks(): void {
-    this.stockBySku = {};
 
-    this.products.forEach((p) => {
-      if (!p.sku) {
-        return;
-      }
-
-      this.inventoryService.getStock(p.sku).subscribe({
-        next: (inv: Inventory) => {
-          this.stockBySku[p.sku] = inv.quantity;
-        },
-        error: () => {
-          // si no hay stock registrado devolvemos 0 o lo que quieras mostrar
-          this.stockBySku[p.sku] = 0;
-        },
-      });
+  // 👉 Siguiente bloque: se añade a la lista sin volver a pedir lo ya cargado
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) return;
+    this.loadingMore = true;
+
+    this.inventoryService.getCatalogPage(this.PAGE_SIZE, this.nextCursor).subscribe({
+      next: (page) => {
+        this.addPage(page);
+        this.loadingMore = false;
+      },
+      error: () => {
+        this.error = 'No se pudieron cargar más productos';
+        this.loadingMore = false;
+      },
     });
   }
 
+  // Producto y stock llegan juntos: no hace falta consultar inventario por aparte
+  private addPage(page: CatalogStockPage): void {
+    page.items.forEach((p) => (this.stockBySku[p.sku] = p.quantity));
+    this.products = [...this.products, ...page.items];
+    this.nextCursor = page.nextCursor;
+    this.applyFilter();
+  }
+
   stockLabel(p: Product): string {
     const total = this.stockBySku[p.sku];
     if (total === undefined) return '—';
@@ -173,6 +182,8 @@ export class ProductList implements OnInit {
       next: (updated) => {
         // sincronizamos con lo que devuelve el backend
         p.active = updated.active;
+        // y la proyección de inventario, para que una recarga del listado no muestre el estado anterior
+        this.inventoryService.syncCatalog().subscribe({ error: () => {} });
       },
       error: () => {
         alert('No se pudo cambiar el estado del producto');
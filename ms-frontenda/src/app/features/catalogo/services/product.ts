@@ -1,8 +1,9 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Product } from '../models/product.model';
 import { CreateProduct } from '../models/create-product.model';
+import { ProductPage, ProductSort } from '../models/product-page.model';
 import { environment } from '../../../../environments/environment';
 
 @Injectable({
@@ -17,14 +18,39 @@ export class ProductService {
     return this.http.get<Product[]>(this.baseUrl);
   }
 
+  // 📄 Página de productos (cursor = continuar desde el último recibido)
+  getPage(
+    size: number,
+    cursor?: string | null,
+    filters: { category?: string | null; active?: boolean | null; sort?: ProductSort } = {}
+  ): Observable<ProductPage> {
+    let params = new HttpParams().set('size', size.toString());
+    if (cursor) params = params.set('cursor', cursor);
+    if (filters.category) params = params.set('category', filters.category);
+    if (filters.active != null) params = params.set('active', String(filters.active));
+    if (filters.sort) params = params.set('sort', filters.sort);
+    return this.http.get<ProductPage>(this.baseUrl, { params });
+  }
+
   getById(id: number): Observable<Product> {
     return this.http.get<Product>(`${this.baseUrl}/${id}`);
   }
 
+  // 🔍 Autocompletar por prefijo de SKU o nombre (resultado acotado)
+  typeahead(q: string, limit = 10): Observable<Product[]> {
+    const params = new HttpParams().set('q', q).set('limit', limit.toString());
+    return this.http.get<Product[]>(`${this.baseUrl}/typeahead`, { params });
+  }
+
   getBySku(sku: string): Observable<Product> {
     return this.http.get<Product>(`${this.baseUrl}/sku/${sku}`);
   }
 
+  // 👉 Varios SKUs en una sola petición (los inexistentes no vienen en la respuesta)
+  getBySkus(skus: string[]): Observable<Product[]> {
+    return this.http.post<Product[]>(`${this.baseUrl}/by-skus`, skus);
+  }
+
   create(dto: CreateProduct): Observable<Product> {
     return this.http.post<Product>(this.baseUrl, dto);
   }
@@ -0,0 +1,11 @@
+import { Product } from '../../catalogo/models/product.model';
+
+// Producto + stock desde la proyección de ms-inventory
+export interface CatalogStockItem extends Product {
+  quantity: number;
+}
+
+export interface CatalogStockPage {
+  items: CatalogStockItem[];
+  nextCursor: string | null;
+}
@@ -0,0 +1,9 @@
+// Resultado de un movimiento (POST /inventory/update y cada ítem de /update-batch)
+export interface StockItemResult {
+  productSku: string;
+  type: string;
+  quantity: number;
+  stockAfter: number | null;
+  status: 'APPLIED' | 'DUPLICATE' | 'REJECTED';
+  message: string | null;
+}
@@ -0,0 +1,5 @@
+// Una fila de inventario por SKU: solo el total
+export interface StockSummary {
+  productSku: string;
+  quantity: number;
+}
@@ -2,6 +2,7 @@ export interface StockUpdate {
   productSku: string;
   quantity: number;
   type: 'ENTRADA' | 'SALIDA';
-  reference?: string | null;
+  // Obligatoria: con el SKU identifica el movimiento (reintentar con la misma no descuenta dos veces)
+  reference: string;
   reason?: string | null;
 }
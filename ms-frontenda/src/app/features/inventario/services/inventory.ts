@@ -1,10 +1,13 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../../environments/environment';
 import { Inventory } from '../models/inventory.model';
 import { Movement } from '../models/movement.model';
 import { StockUpdate } from '../models/stock-update.model';
+import { StockItemResult } from '../models/stock-item-result.model';
+import { StockSummary } from '../models/stock-summary.model';
+import { CatalogStockPage } from '../models/catalog-stock.model';
 
 @Injectable({
   providedIn: 'root',
@@ -18,11 +21,40 @@ export class InventoryService {
     return this.http.get<Inventory>(`${this.baseUrl}/${sku}`);
   }
 
+  // 👉 Stock de varios SKUs en una sola petición
+  getStocks(skus: string[]): Observable<StockSummary[]> {
+    const params = new HttpParams().set('skus', skus.join(','));
+    return this.http.get<StockSummary[]>(`${this.baseUrl}/stock`, { params });
+  }
+
+  // 📄 Productos con su stock en una sola llamada (paginado por SKU)
+  getCatalogPage(
+    size: number,
+    cursor?: string | null,
+    filters: { category?: string | null; active?: boolean | null } = {}
+  ): Observable<CatalogStockPage> {
+    let params = new HttpParams().set('size', size.toString());
+    if (cursor) params = params.set('cursor', cursor);
+    if (filters.category) params = params.set('category', filters.category);
+    if (filters.active != null) params = params.set('active', String(filters.active));
+    return this.http.get<CatalogStockPage>(`${this.baseUrl}/catalog`, { params });
+  }
+
+  // 🔄 Pide a inventario que lea ya el feed del catálogo (el listado sale de esa proyección)
+  syncCatalog(): Observable<void> {
+    return this.http.post<void>(`${this.baseUrl}/catalog/sync`, {});
+  }
+
   getMovements(sku: string): Observable<Movement[]> {
     return this.http.get<Movement[]>(`${this.baseUrl}/movements/${sku}`);
   }
 
-  updateStock(dto: StockUpdate): Observable<void> {
-    return this.http.post<void>(`${this.baseUrl}/update`, dto);
+  // 👉 La referencia se genera una vez por acción del usuario y se reutiliza si se reintenta
+  newReference(): string {
+    return `MANUAL-${crypto.randomUUID()}`;
+  }
+
+  updateStock(dto: StockUpdate): Observable<StockItemResult> {
+    return this.http.post<StockItemResult>(`${this.baseUrl}/update`, dto);
   }
 }
@@ -0,0 +1,21 @@
+export interface SalesSummary {
+  from: string | null;
+  to: string | null;
+  tickets: number;
+  units: number;   // unidades base
+  revenue: number;
+}
+
+export interface ProductSales {
+  productSku: string;
+  units: number;
+  revenue: number;
+  tickets: number;
+}
+
+export interface SalesPeriod {
+  period: string; // "2025-01-15" o "2025-01"
+  tickets: number;
+  units: number;
+  revenue: number;
+}
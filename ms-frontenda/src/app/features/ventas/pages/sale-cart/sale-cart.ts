@@ -1,5 +1,14 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { Router } from '@angular/router';
+import {
+  Subject,
+  catchError,
+  debounceTime,
+  distinctUntilChanged,
+  of,
+  switchMap,
+  takeUntil,
+} from 'rxjs';
 import { SaleService } from '../../services/sale';
 import { CreateSale, CreateSaleItem } from '../../models/create-sale.model';
 import { Sale } from '../../models/sale.model';
@@ -20,7 +29,7 @@ import { PurchaseOrder } from '../../../compras/models/purchase-order.model';
   templateUrl: './sale-cart.html',
   styleUrls: ['./sale-cart.scss'],
 })
-export class SaleCart implements OnInit {
+export class SaleCart implements OnInit, OnDestroy {
   // Datos del cliente
   customerDni = '';
   selectedCustomer: Customer | null = null;
@@ -34,13 +43,16 @@ export class SaleCart implements OnInit {
 
   // margen por defecto (30% de ganancia)
   readonly defaultMargin = 0.30;
-  // Lista completa de clientes
-  customers: Customer[] = [];
-  loadingCustomers = false;
+  // Sugerencias del autocompletado (se piden al backend mientras se escribe)
+  readonly minQueryLength = 2;
+  customerSuggestions: Customer[] = [];
 
   // ----- PRODUCTOS -----
-  products: Product[] = [];
-  loadingProducts = false;
+  productSuggestions: Product[] = [];
+
+  private customerQuery$ = new Subject<string>();
+  private productQuery$ = new Subject<string>();
+  private destroy$ = new Subject<void>();
 
   // Items
   items: CreateSaleItem[] = [
@@ -68,12 +80,41 @@ export class SaleCart implements OnInit {
     private purchaseService: PurchaseService,     // 👈 nuevo
   ) {}
 
-  // Cargar clientes y productos al entrar
+  // Ya no se descargan todos los clientes y productos: se buscan por prefijo
   ngOnInit(): void {
-    this.loadCustomers();
-    this.loadProducts();
+    this.customerQuery$
+      .pipe(
+        debounceTime(200),
+        distinctUntilChanged(),
+        switchMap((q) =>
+          q.length < this.minQueryLength
+            ? of([] as Customer[])
+            : this.customerService.typeahead(q, 10).pipe(catchError(() => of([] as Customer[])))
+        ),
+        takeUntil(this.destroy$)
+      )
+      .subscribe((customers) => (this.customerSuggestions = customers));
+
+    this.productQuery$
+      .pipe(
+        debounceTime(200),
+        distinctUntilChanged(),
+        switchMap((q) =>
+          q.length < this.minQueryLength
+            ? of([] as Product[])
+            : this.productService.typeahead(q, 10).pipe(catchError(() => of([] as Product[])))
+        ),
+        takeUntil(this.destroy$)
+      )
+      .subscribe((products) => (this.productSuggestions = products));
+
     this.loadAverageCostsFromPurchases();  // 👈 nuevo
   }
+
+  ngOnDestroy(): void {
+    this.destroy$.next();
+    this.destroy$.complete();
+  }
   private loadAverageCostsFromPurchases(): void {
     this.purchaseService.getAll().subscribe({
       next: (purchases: PurchaseOrder[]) => {
@@ -110,20 +151,6 @@ export class SaleCart implements OnInit {
     });
   }
 
-  // Cargar lista de clientes
-  loadCustomers(): void {
-    this.loadingCustomers = true;
-    this.customerService.getAll().subscribe({
-      next: (customers) => {
-        this.loadingCustomers = false;
-        this.customers = customers;
-      },
-      error: (err) => {
-        this.loadingCustomers = false;
-        console.error('No se pudieron cargar los clientes', err);
-      },
-    });
-  }
   getSuggestedPrice(sku?: string | null): number | null {
     if (!sku) return null;
     const baseCost = this.avgCostBySku[sku];
@@ -144,21 +171,6 @@ export class SaleCart implements OnInit {
     }
   }
 
-  // Cargar lista de productos (para el combo)
-  loadProducts(): void {
-    this.loadingProducts = true;
-    this.productService.getAll().subscribe({
-      next: (products) => {
-        this.loadingProducts = false;
-        this.products = products;
-      },
-      error: (err) => {
-        this.loadingProducts = false;
-        console.error('No se pudieron cargar los productos', err);
-      },
-    });
-  }
-
   // ➕ Agregar producto al carrito
   addItem(): void {
     this.items.push({
@@ -202,26 +214,17 @@ export class SaleCart implements OnInit {
     });
   }
 
-  // Seleccionar cliente desde el combo
-  onCustomerSelectChange(event: Event): void {
-    const select = event.target as HTMLSelectElement;
-    const value = select.value;
-
-    if (!value) {
-      this.selectedCustomer = null;
-      this.customerDni = '';
-      this.customerDniSearched = false;
-      this.newCustomerName = '';
-      this.newCustomerPhone = '';
-      return;
-    }
-
-    const id = Number(value);
-    const customer = this.customers.find((c) => c.id === id) || null;
+  // Mientras se escribe el DNI o el nombre se piden sugerencias
+  onCustomerQueryChange(value: string): void {
+    this.customerQuery$.next((value || '').trim());
+  }
 
+  // Seleccionar cliente desde las sugerencias
+  selectCustomer(customer: Customer): void {
     this.selectedCustomer = customer;
-    this.customerDni = customer ? customer.dni : '';
+    this.customerDni = customer.dni;
     this.customerDniSearched = true;
+    this.customerSuggestions = [];
     this.newCustomerName = '';
     this.newCustomerPhone = '';
   }
@@ -269,15 +272,13 @@ export class SaleCart implements OnInit {
     });
   }
 
-  // 🔄 Cuando selecciona un producto desde el select
-  onProductSelectChange(rowIndex: number, sku: string): void {
+  // 🔄 Mientras se escribe el SKU o el nombre se piden sugerencias del catálogo
+  onSkuInput(rowIndex: number, sku: string): void {
     const item = this.items[rowIndex];
     if (!item) return;
 
-    const trimmed = (sku || '').trim();
-    if (!trimmed) return;
-
-    item.productSku = trimmed;
+    item.productSku = sku || '';
+    this.productQuery$.next(item.productSku.trim());
   }
 
   // 🗑️ Quitar item
@@ -398,6 +399,7 @@ export class SaleCart implements OnInit {
     this.selectedCustomer = null;      // 1. Quita el objeto cliente
     this.customerDni = '';             // 2. Limpia la caja de texto del DNI
     this.customerDniSearched = false;  // 3. Resetea el estado de búsqueda
+    this.customerSuggestions = [];
     this.newCustomerName = '';         // 4. Limpia campos de creación (si había)
     this.newCustomerPhone = '';
     this.error = null;                 // 5. Quita mensajes de error viejos
@@ -29,6 +29,12 @@ export class CustomerService {
     return this.http.get<Customer>(`${this.baseUrl}/search`, { params });
   }
 
+  // 🔍 Autocompletar por prefijo de DNI o nombre (resultado acotado)
+  typeahead(q: string, limit = 10): Observable<Customer[]> {
+    const params = new HttpParams().set('q', q).set('limit', limit.toString());
+    return this.http.get<Customer[]>(`${this.baseUrl}/typeahead`, { params });
+  }
+
   // 🏆 TOP CLIENTES
   getTop(limit: number): Observable<TopCustomer[]> {
     return this.http
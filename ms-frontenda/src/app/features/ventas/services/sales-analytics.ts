@@ -0,0 +1,57 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { environment } from '../../../../environments/environment';
+import {
+  ProductSales,
+  SalesPeriod,
+  SalesSummary,
+} from '../models/sales-analytics.model';
+
+// Estadísticas de ventas calculadas en ms-ventas (no se descargan las ventas)
+@Injectable({
+  providedIn: 'root',
+})
+export class SalesAnalyticsService {
+  private readonly baseUrl = `${environment.apiUrl}/sales/analytics`;
+
+  constructor(private http: HttpClient) {}
+
+  getSummary(from?: string, to?: string): Observable<SalesSummary> {
+    return this.http.get<SalesSummary>(`${this.baseUrl}/summary`, {
+      params: this.rangeParams(from, to),
+    });
+  }
+
+  getByPeriod(
+    granularity: 'DAY' | 'MONTH',
+    from?: string,
+    to?: string
+  ): Observable<SalesPeriod[]> {
+    const params = this.rangeParams(from, to).set('granularity', granularity);
+    return this.http.get<SalesPeriod[]>(`${this.baseUrl}/by-period`, { params });
+  }
+
+  getTopProducts(
+    limit: number,
+    orderBy: 'UNITS' | 'REVENUE' = 'UNITS'
+  ): Observable<ProductSales[]> {
+    const params = new HttpParams()
+      .set('limit', limit.toString())
+      .set('orderBy', orderBy);
+    return this.http.get<ProductSales[]>(`${this.baseUrl}/top-products`, { params });
+  }
+
+  getBySku(from?: string, to?: string): Observable<ProductSales[]> {
+    return this.http.get<ProductSales[]>(`${this.baseUrl}/by-sku`, {
+      params: this.rangeParams(from, to),
+    });
+  }
+
+  private rangeParams(from?: string, to?: string): HttpParams {
+    let params = new HttpParams();
+    if (from) params = params.set('from', from);
+    if (to) params = params.set('to', to);
+    return params;
+  }
+}
@@ -5,9 +5,9 @@ import { forkJoin } from 'rxjs';
 
 import { AuthService } from '../../auth/auth';
 
-// VENTAS
-import { SaleService } from '../../features/ventas/services/sale';
-import { Sale } from '../../features/ventas/models/sale.model';
+// VENTAS (agregados calculados en ms-ventas)
+import { SalesAnalyticsService } from '../../features/ventas/services/sales-analytics';
+import { ProductSales } from '../../features/ventas/models/sales-analytics.model';
 
 // COMPRAS
 import { PurchaseService } from '../../features/compras/services/purchase';
@@ -77,7 +77,7 @@ export class Dashboard implements OnInit {
   constructor(
     private authService: AuthService,
     private router: Router,
-    private saleService: SaleService,
+    private salesAnalyticsService: SalesAnalyticsService,
     private purchaseService: PurchaseService,
     private productService: ProductService,
     private customerService: CustomerService,
@@ -98,12 +98,14 @@ export class Dashboard implements OnInit {
     this.salesError = null;
 
     forkJoin({
-      sales: this.saleService.getAll(),
+      salesSummary: this.salesAnalyticsService.getSummary(),
+      topSold: this.salesAnalyticsService.getTopProducts(5, 'UNITS'),
+      salesBySku: this.salesAnalyticsService.getBySku(),
       purchases: this.purchaseService.getAll(),
       products: this.productService.getAll(),
       topCustomers: this.customerService.getTop(5),
     }).subscribe({
-      next: ({ sales, purchases, products, topCustomers }) => {
+      next: ({ salesSummary, topSold, salesBySku, purchases, products, topCustomers }) => {
         this.loadingSales = false;
 
         // Mapa SKU → nombre de producto
@@ -114,12 +116,9 @@ export class Dashboard implements OnInit {
           }
         });
 
-        // Totales de ventas
-        this.totalSalesCount = sales.length;
-        this.totalSalesAmount = sales.reduce(
-          (acc, s) => acc + this.getSaleTotal(s),
-          0
-        );
+        // Totales de ventas (ya vienen agregados del backend)
+        this.totalSalesCount = salesSummary.tickets ?? 0;
+        this.totalSalesAmount = salesSummary.revenue ?? 0;
 
         // Totales de compras
         this.totalPurchasesAmount = purchases.reduce(
@@ -130,8 +129,16 @@ export class Dashboard implements OnInit {
         // Top clientes (ya viene con DNI, nombre y totalSales)
         this.topCustomers = topCustomers || [];
 
+        // Top productos (por unidades vendidas)
+        this.topProducts = (topSold || []).map((p) => ({
+          sku: p.productSku,
+          name: this.productNameBySku[p.productSku] ?? '(sin nombre)',
+          totalUnits: p.units,
+          totalAmount: p.revenue,
+        }));
+
         // Cálculo detallado por producto
-        this.calculateStats(sales, purchases);
+        this.calculateStats(salesBySku || [], purchases);
       },
       error: () => {
         this.loadingSales = false;
@@ -171,15 +178,6 @@ export class Dashboard implements OnInit {
     // usamos dos colores tipo Bootstrap: azul y gris
     return `conic-gradient(#0d6efd 0 ${salesPct}%, #6c757d ${salesPct}% 100%)`;
   }
-  private getSaleTotal(s: Sale): number {
-    if (!s.items) return 0;
-    return s.items.reduce((acc, it) => {
-      const qty = Number(it.quantity) || 0;
-      const price = Number(it.unitPrice) || 0;
-      return acc + qty * price;
-    }, 0);
-  }
-
   private getPurchaseTotal(p: PurchaseOrder): number {
     const items = (p as any).items as
       | {
@@ -199,7 +197,7 @@ export class Dashboard implements OnInit {
   }
 
   // ================== CÁLCULOS PRINCIPALES ==================
-  private calculateStats(sales: Sale[], purchases: PurchaseOrder[]): void {
+  private calculateStats(salesBySku: ProductSales[], purchases: PurchaseOrder[]): void {
     const productSalesMap = new Map<
       string,
       { unitsSold: number; revenue: number }
@@ -209,28 +207,13 @@ export class Dashboard implements OnInit {
       { unitsPurchased: number; costPurchased: number }
     >();
 
-    // ----- Ventas -----
-    for (const s of sales) {
-      if (!s.items) continue;
-
-      for (const it of s.items) {
-        const sku = it.productSku;
-        if (!sku) continue;
-
-        const units =
-          (Number(it.quantity) || 0) *
-          (Number((it as any).unitsPerPackage ?? 1) || 1);
-        const amount =
-          (Number(it.quantity) || 0) * (Number(it.unitPrice) || 0);
-
-        let ps = productSalesMap.get(sku);
-        if (!ps) {
-          ps = { unitsSold: 0, revenue: 0 };
-          productSalesMap.set(sku, ps);
-        }
-        ps.unitsSold += units;
-        ps.revenue += amount;
-      }
+    // ----- Ventas (agregadas por SKU en el backend) -----
+    for (const ps of salesBySku) {
+      if (!ps.productSku) continue;
+      productSalesMap.set(ps.productSku, {
+        unitsSold: Number(ps.units) || 0,
+        revenue: Number(ps.revenue) || 0,
+      });
     }
 
     // ----- Compras -----
@@ -266,17 +249,6 @@ export class Dashboard implements OnInit {
       }
     }
 
-    // ----- Top productos (por unidades vendidas) -----
-    this.topProducts = Array.from(productSalesMap.entries())
-      .map(([sku, v]) => ({
-        sku,
-        name: this.productNameBySku[sku] ?? '(sin nombre)',
-        totalUnits: v.unitsSold,
-        totalAmount: v.revenue,
-      }))
-      .sort((a, b) => b.totalUnits - a.totalUnits)
-      .slice(0, 5);
-
     // ----- Comparativo compras vs ventas por producto -----
     const allSkus = new Set<string>([
       ...Array.from(productSalesMap.keys()),
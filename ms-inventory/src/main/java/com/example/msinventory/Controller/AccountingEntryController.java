@@ -96,6 +96,7 @@ public class AccountingEntryController {
 //
 // GET /api/accounting/entries?from=2025-01-01&to=2025-01-31&type=VENTA
 // type es opcional (COMPRA / VENTA / AJUSTE)
+// Con size (y page, desde 0) responde paginado: ...&search=caja&minAmount=100&page=0&size=20
     @GetMapping("/entries")
     public ResponseEntity<?> getEntries(
             @RequestParam("from")
@@ -111,11 +112,18 @@ public class AccountingEntryController {
             @RequestParam(value = "minAmount", required = false)
             Double minAmount,
             @RequestParam(value = "maxAmount", required = false)
-            Double maxAmount
+            Double maxAmount,
+            @RequestParam(value = "page", defaultValue = "0")
+            int page,
+            @RequestParam(value = "size", required = false)
+            Integer size
     ) {
         if (from.isAfter(to)) {
             return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
         }
+        if (size != null) {
+            return ResponseEntity.ok(service.getEntriesPage(from, to, type, search, minAmount, maxAmount, page, size));
+        }
         List<AccountingEntry> entries = service.getEntries(from, to, type, search, minAmount, maxAmount);
         return ResponseEntity.ok(entries);
     }
@@ -145,6 +153,52 @@ public class AccountingEntryController {
         return ResponseEntity.ok(balance);
     }
 
+    // 👉 BALANCE DE COMPROBACIÓN (todas las cuentas en una llamada)
+    //
+    // GET /api/accounting/trial-balance?from=2025-01-01&to=2025-01-31
+    @GetMapping("/trial-balance")
+    public ResponseEntity<?> getTrialBalance(
+            @RequestParam("from")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam("to")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to
+    ) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        return ResponseEntity.ok(service.getTrialBalance(from, to));
+    }
+
+    // 🔄 Recalcular el mayor diario desde los asientos (ej: tras corregir datos a mano)
+    //    Sin fechas recalcula todo el histórico: es el llenado inicial al desplegar el mayor.
+    //
+    // POST /api/accounting/ledger/rebuild?from=2025-01-01&to=2025-01-31
+    // POST /api/accounting/ledger/rebuild
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<?> rebuildLedger(
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to
+    ) {
+        if (from == null && to == null) {
+            service.rebuildWholeLedger();
+            return ResponseEntity.noContent().build();
+        }
+        if (from == null || to == null) {
+            return ResponseEntity.badRequest().body("Indique 'from' y 'to', o ninguno para recalcular todo");
+        }
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        service.rebuildLedger(from, to);
+        return ResponseEntity.noContent().build();
+    }
+
     // 👉 Asiento por ID
     //
     // GET /api/accounting/{id}
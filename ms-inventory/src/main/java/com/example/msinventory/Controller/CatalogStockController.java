@@ -0,0 +1,33 @@
+package com.example.msinventory.Controller;
+
+import com.example.msinventory.Dto.CatalogStockPageDto;
+import com.example.msinventory.Service.CatalogStockProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/inventory/catalog")
+@RequiredArgsConstructor
+public class CatalogStockController {
+
+    private final CatalogStockProjection projection;
+
+    // 👉 Productos con su stock: GET /inventory/catalog?size=100&category=Bebidas&active=true&cursor=PRD-000120
+    @GetMapping
+    public ResponseEntity<CatalogStockPageDto> page(
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean active
+    ) {
+        return ResponseEntity.ok(projection.page(size, cursor, category, active));
+    }
+
+    // 🔄 Forzar la lectura del feed del catálogo (sin esperar al próximo ciclo)
+    @PostMapping("/sync")
+    public ResponseEntity<Void> sync() {
+        projection.syncCatalog();
+        return ResponseEntity.noContent().build();
+    }
+}
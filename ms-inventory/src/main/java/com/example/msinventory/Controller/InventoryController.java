@@ -2,6 +2,11 @@ package com.example.msinventory.Controller;
 
 import com.example.msinventory.Dto.InventoryDto;
 import com.example.msinventory.Dto.MovementDto;
+import com.example.msinventory.Dto.ProductDto;
+import com.example.msinventory.Dto.StockBatchResultDto;
+import com.example.msinventory.Dto.StockBatchUpdateRequest;
+import com.example.msinventory.Dto.StockItemResultDto;
+import com.example.msinventory.Dto.StockSummaryDto;
 import com.example.msinventory.Dto.StockUpdateRequest;
 import com.example.msinventory.Entity.Inventory;
 import com.example.msinventory.Service.InventoryService;
@@ -18,15 +23,40 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
 
+    // 👉 Stock de varios SKUs: GET /inventory/stock?skus=PRD-000001,PRD-000002
+    @GetMapping("/stock")
+    public ResponseEntity<List<StockSummaryDto>> getStocks(@RequestParam List<String> skus) {
+        return ResponseEntity.ok(inventoryService.getStocks(skus));
+    }
+
     @GetMapping("/{sku}")
     public Inventory getStock(@PathVariable String sku) {
         return inventoryService.getStock(sku);
     }
 
+    // Producto del catálogo (desde la caché local; sigue respondiendo si ms-catalogo cae)
+    @GetMapping("/products/{sku}")
+    public ResponseEntity<ProductDto> getProduct(@PathVariable String sku) {
+        return ResponseEntity.ok(inventoryService.getProduct(sku));
+    }
+
+    // GET /inventory/products?skus=PRD-000001,PRD-000002
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductDto>> getProducts(@RequestParam List<String> skus) {
+        return ResponseEntity.ok(inventoryService.getProducts(skus));
+    }
+
+    // Un movimiento suelto; reference obligatoria. Responde APPLIED, DUPLICATE o REJECTED
     @PostMapping("/update")
-    public ResponseEntity<Void> updateStock(@RequestBody StockUpdateRequest dto) {
-        inventoryService.updateStock(dto);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<StockItemResultDto> updateStock(@RequestBody StockUpdateRequest dto) {
+        return ResponseEntity.ok(inventoryService.updateStock(dto));
+    }
+
+    // Varios movimientos de una misma referencia (venta/compra) en una sola llamada,
+    // con el resultado por SKU
+    @PostMapping("/update-batch")
+    public ResponseEntity<StockBatchResultDto> updateStockBatch(@RequestBody StockBatchUpdateRequest dto) {
+        return ResponseEntity.ok(inventoryService.updateStockBatch(dto));
     }
 
     @GetMapping("/movements/{productSku}")
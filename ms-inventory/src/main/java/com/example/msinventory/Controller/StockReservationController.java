@@ -0,0 +1,38 @@
+package com.example.msinventory.Controller;
+
+import com.example.msinventory.Dto.ReservationDto;
+import com.example.msinventory.Dto.ReservationRequest;
+import com.example.msinventory.Dto.StockAvailabilityDto;
+import com.example.msinventory.Service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/inventory/reservations")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService reservationService;
+
+    // Retiene stock (ej: venta PENDING) sin tocar la fila de inventario
+    @PostMapping
+    public ResponseEntity<ReservationDto> reserve(@RequestBody ReservationRequest req) {
+        return ResponseEntity.ok(reservationService.reserve(req));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ReservationDto> confirm(@PathVariable String id) {
+        return ResponseEntity.ok(reservationService.confirm(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReservationDto> release(@PathVariable String id) {
+        return ResponseEntity.ok(reservationService.release(id));
+    }
+
+    @GetMapping("/available/{sku}")
+    public ResponseEntity<StockAvailabilityDto> availability(@PathVariable String sku) {
+        return ResponseEntity.ok(reservationService.availability(sku));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.msinventory.Dto;
+
+import com.example.msinventory.Entity.AccountingEntry;
+
+import java.util.List;
+
+public record AccountingEntryPageDto(
+        List<AccountingEntry> items,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages
+) {}
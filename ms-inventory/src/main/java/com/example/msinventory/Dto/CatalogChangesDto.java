@@ -0,0 +1,11 @@
+package com.example.msinventory.Dto;
+
+import java.util.List;
+
+// Respuesta de ms-catalogo GET /products/changes?since=...&limit=...
+// version = última versión servida; con hasMore se pide la página siguiente desde ahí.
+public record CatalogChangesDto(
+        Long version,
+        List<ProductDto> changes,
+        boolean hasMore
+) {}
@@ -0,0 +1,14 @@
+package com.example.msinventory.Dto;
+
+public record CatalogStockDto(
+        Long id,                // id del producto en ms-catalogo
+        String sku,
+        String name,
+        String unit,
+        String category,
+        String description,
+        Boolean active,
+        Integer unitsPerBox,
+        Integer unitsPerPack,
+        Integer quantity
+) {}
@@ -0,0 +1,9 @@
+package com.example.msinventory.Dto;
+
+import java.util.List;
+
+// nextCursor = SKU del último ítem; null si no hay más
+public record CatalogStockPageDto(
+        List<CatalogStockDto> items,
+        String nextCursor
+) {}
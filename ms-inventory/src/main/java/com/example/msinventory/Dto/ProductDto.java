@@ -8,5 +8,8 @@ public record ProductDto(
     String category,
     Double weight,
     String description,
-    Boolean active
+    Boolean active,
+    Integer unitsPerBox,
+    Integer unitsPerPack,
+    Long version            // versión del catálogo en la que cambió (feed /products/changes)
 ) {}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.msinventory.Dto;
+
+import java.time.Instant;
+
+public record ReservationDto(
+        String id,
+        String productSku,
+        Integer quantity,
+        String reference,
+        Instant expiresAt,
+        Integer available   // disponible del SKU después de la operación
+) {}
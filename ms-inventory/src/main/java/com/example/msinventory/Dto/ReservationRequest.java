@@ -0,0 +1,7 @@
+package com.example.msinventory.Dto;
+
+public record ReservationRequest(
+        String productSku,
+        Integer quantity,
+        String reference   // obligatoria, ej: "SALE-15"; el volcado usa la clave "SALE-15:<sku>", igual que el outbox de ventas
+) {}
@@ -0,0 +1,8 @@
+package com.example.msinventory.Dto;
+
+public record StockAvailabilityDto(
+        String productSku,
+        Integer onHand,     // stock en BD según la última lectura
+        Integer held,       // reservado + confirmado pendiente de volcar
+        Integer available
+) {}
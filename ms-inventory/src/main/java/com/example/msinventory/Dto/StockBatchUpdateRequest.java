@@ -0,0 +1,9 @@
+package com.example.msinventory.Dto;
+
+import java.util.List;
+
+public record StockBatchUpdateRequest(
+        String reference,               // ej: "SALE-15", se aplica a todos los ítems
+        String reason,
+        List<StockUpdateRequest> items
+) {}
@@ -0,0 +1,14 @@
+package com.example.msinventory.Dto;
+
+public record StockItemResultDto(
+        String productSku,
+        String type,
+        Integer quantity,
+        Integer stockAfter,   // stock resultante (null si no se aplicó)
+        Status status,
+        String message
+) {
+    public enum Status {
+        APPLIED, DUPLICATE, REJECTED
+    }
+}
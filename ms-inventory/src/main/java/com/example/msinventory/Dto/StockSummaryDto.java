@@ -0,0 +1,7 @@
+package com.example.msinventory.Dto;
+
+// product_sku es único en inventory: una fila por SKU, sin desglose por ubicación
+public record StockSummaryDto(
+        String productSku,
+        Integer quantity    // 0 si el SKU no tiene stock registrado
+) {}
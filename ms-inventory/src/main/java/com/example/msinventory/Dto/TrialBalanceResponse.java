@@ -0,0 +1,12 @@
+package com.example.msinventory.Dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record TrialBalanceResponse(
+        LocalDate from,
+        LocalDate to,
+        List<AccountBalanceResponse> accounts,
+        Double totalDebits,
+        Double totalCredits     // en partida doble debe coincidir con totalDebits
+) {}
@@ -0,0 +1,33 @@
+package com.example.msinventory.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Mayor diario por cuenta: suma de débitos y créditos de los asientos de ese día.
+// Se actualiza en la misma transacción que crea el asiento (AccountingEntryService.createGeneric).
+@Data
+@Entity
+@Table(
+        name = "account_daily_balance",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_daily_balance_account_day", columnNames = {"account", "balance_day"}),
+        indexes = @Index(name = "idx_account_daily_balance_day", columnList = "balance_day")
+)
+public class AccountDailyBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String account;
+
+    @Column(name = "balance_day", nullable = false)
+    private LocalDate balanceDay;
+
+    @Column(nullable = false)
+    private Double debits = 0.0;
+
+    @Column(nullable = false)
+    private Double credits = 0.0;
+}
@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "accounting_entries")
+@Table(
+        name = "accounting_entries",
+        indexes = {
+                // filtros del libro diario: rango de fechas, con o sin tipo
+                @Index(name = "idx_accounting_type_date", columnList = "type, date"),
+                @Index(name = "idx_accounting_date", columnList = "date")
+        }
+)
 public class AccountingEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounting_entry_seq")
+    @SequenceGenerator(name = "accounting_entry_seq", sequenceName = "accounting_entry_seq", allocationSize = 50)
     private Long id;
 
     // Fecha del asiento
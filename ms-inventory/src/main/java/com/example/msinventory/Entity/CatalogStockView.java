@@ -0,0 +1,51 @@
+package com.example.msinventory.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Proyección de lectura: datos del producto (copiados de ms-catalogo) junto al stock.
+// Solo la escribe CatalogStockProjection; no es la fuente de verdad de ninguno de los dos.
+@Data
+@Entity
+@Table(
+        name = "catalog_stock_view",
+        indexes = {
+                @Index(name = "idx_catalog_stock_category_active", columnList = "category, active, product_sku"),
+                @Index(name = "idx_catalog_stock_active", columnList = "active, product_sku"),
+                @Index(name = "idx_catalog_stock_version", columnList = "catalog_version")
+        }
+)
+public class CatalogStockView {
+    @Id
+    @Column(name = "product_sku")
+    private String productSku;
+
+    private Long productId;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String unit;
+
+    private String category;
+
+    private String description;
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    private Integer unitsPerBox;
+
+    private Integer unitsPerPack;
+
+    @Column(nullable = false)
+    private Integer quantity = 0;
+
+    // Versión del catálogo de la última copia del producto
+    @Column(name = "catalog_version", nullable = false)
+    private Long catalogVersion = 0L;
+
+    private LocalDateTime updatedAt;
+}
@@ -4,7 +4,10 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "inventory")
+@Table(
+        name = "inventory",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_product_sku", columnNames = "product_sku")
+)
 public class Inventory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
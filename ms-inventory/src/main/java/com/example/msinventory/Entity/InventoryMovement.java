@@ -6,10 +6,14 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "inventory_movements")
+@Table(
+        name = "inventory_movements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_movements_idempotency_key", columnNames = "idempotency_key")
+)
 public class InventoryMovement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movement_seq")
+    @SequenceGenerator(name = "inventory_movement_seq", sequenceName = "inventory_movement_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -24,6 +28,10 @@ public class InventoryMovement {
     
     private String reference; // ID de compra o venta
     private String reason;
+
+    // reference + ":" + SKU; evita aplicar dos veces el mismo movimiento (reintentos, outbox)
+    @Column(name = "idempotency_key", length = 150)
+    private String idempotencyKey;
     
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -0,0 +1,6 @@
+package com.example.msinventory.Event;
+
+import java.util.Collection;
+
+// Se publica dentro de la transacción que movió stock; los listeners lo reciben tras el commit.
+public record StockChangedEvent(Collection<String> productSkus) {}
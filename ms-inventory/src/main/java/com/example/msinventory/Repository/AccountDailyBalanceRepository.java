@@ -0,0 +1,92 @@
+package com.example.msinventory.Repository;
+
+import com.example.msinventory.Entity.AccountDailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AccountDailyBalanceRepository extends JpaRepository<AccountDailyBalance, Long> {
+
+    interface AccountTotalsProjection {
+        String getAccount();
+        Double getDebits();
+        Double getCredits();
+    }
+
+    // 👉 Suma atómica en la fila (cuenta, día); si no existe se crea.
+    @Modifying
+    @Query(value = """
+           insert into account_daily_balance (account, balance_day, debits, credits)
+           values (:account, :day, :debits, :credits)
+           on duplicate key update debits = debits + :debits,
+                                   credits = credits + :credits
+           """, nativeQuery = true)
+    int add(
+            @Param("account") String account,
+            @Param("day") LocalDate day,
+            @Param("debits") double debits,
+            @Param("credits") double credits
+    );
+
+    @Modifying
+    @Query("delete from AccountDailyBalance b where b.balanceDay >= :from and b.balanceDay < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula desde accounting_entries los días [from, to)
+    @Modifying
+    @Query(value = """
+           insert into account_daily_balance (account, balance_day, debits, credits)
+           select m.account, m.day, sum(m.debits), sum(m.credits)
+           from (
+                select e.debit_account as account, date(e.date) as day, e.amount as debits, 0 as credits
+                from accounting_entries e
+                where e.date >= :from and e.date < :to
+                union all
+                select e.credit_account, date(e.date), 0, e.amount
+                from accounting_entries e
+                where e.date >= :from and e.date < :to
+           ) m
+           group by m.account, m.day
+           """, nativeQuery = true)
+    int rebuildRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Saldo de una cuenta: suma de buckets diarios (usa uk_account_daily_balance_account_day)
+    @Query("""
+           select b.account as account,
+                  coalesce(sum(b.debits), 0) as debits,
+                  coalesce(sum(b.credits), 0) as credits
+           from AccountDailyBalance b
+           where b.account = :account
+             and b.balanceDay between :from and :to
+           group by b.account
+           """)
+    List<AccountTotalsProjection> sumForAccount(
+            @Param("account") String account,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // 👉 Balance de comprobación: todas las cuentas en una consulta
+    @Query("""
+           select b.account as account,
+                  sum(b.debits) as debits,
+                  sum(b.credits) as credits
+           from AccountDailyBalance b
+           where b.balanceDay between :from and :to
+           group by b.account
+           order by b.account
+           """)
+    List<AccountTotalsProjection> sumByAccount(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // Fecha del primer asiento (para el primer llenado del mayor)
+    @Query("select min(e.date) from AccountingEntry e")
+    LocalDateTime firstEntryDate();
+}
@@ -0,0 +1,50 @@
+package com.example.msinventory.Repository;
+
+import com.example.msinventory.Entity.AccountingEntry;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Filtros del libro diario que se resuelven en la BD (GET /accounting/entries).
+// Cada método devuelve null si el filtro no aplica (Specification.allOf/and lo ignora).
+public final class AccountingEntrySpecs {
+
+    private AccountingEntrySpecs() {
+    }
+
+    // 👉 Rango de fechas (+ tipo): usa el índice (type, date) o (date)
+    public static Specification<AccountingEntry> dateBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> cb.between(root.get("date"), from, to);
+    }
+
+    public static Specification<AccountingEntry> hasType(String type) {
+        if (type == null || type.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("type"), type.toUpperCase());
+    }
+
+    public static Specification<AccountingEntry> amountAtLeast(Double min) {
+        if (min == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<AccountingEntry> amountAtMost(Double max) {
+        if (max == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    // 🔍 Texto en cuentas o descripción. Sin lower(): la collation de MySQL ya ignora mayúsculas.
+    public static Specification<AccountingEntry> containsText(String search) {
+        if (search == null || search.isBlank()) return null;
+        String pattern = "%" + escapeLike(search.trim()) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(root.get("debitAccount"), pattern, '\\'),
+                cb.like(root.get("creditAccount"), pattern, '\\'),
+                cb.like(root.get("description"), pattern, '\\')
+        );
+    }
+
+    // Visible en el paquete para los tests
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.msinventory.Repository;
+
+import com.example.msinventory.Entity.CatalogStockView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CatalogStockViewRepository extends JpaRepository<CatalogStockView, String> {
+
+    // 👉 Copia los datos del producto; el stock solo se toma de inventory al crear la fila
+    @Modifying
+    @Query(value = """
+           insert into catalog_stock_view
+                  (product_sku, product_id, name, unit, category, description, active,
+                   units_per_box, units_per_pack, quantity, catalog_version, updated_at)
+           values (:sku, :productId, :name, :unit, :category, :description, :active,
+                   :unitsPerBox, :unitsPerPack,
+                   coalesce((select i.quantity from inventory i where i.product_sku = :sku), 0),
+                   :version, now())
+           on duplicate key update product_id = :productId,
+                                   name = :name,
+                                   unit = :unit,
+                                   category = :category,
+                                   description = :description,
+                                   active = :active,
+                                   units_per_box = :unitsPerBox,
+                                   units_per_pack = :unitsPerPack,
+                                   catalog_version = :version,
+                                   updated_at = now()
+           """, nativeQuery = true)
+    int upsertProduct(
+            @Param("sku") String sku,
+            @Param("productId") Long productId,
+            @Param("name") String name,
+            @Param("unit") String unit,
+            @Param("category") String category,
+            @Param("description") String description,
+            @Param("active") boolean active,
+            @Param("unitsPerBox") Integer unitsPerBox,
+            @Param("unitsPerPack") Integer unitsPerPack,
+            @Param("version") long version
+    );
+
+    // 👉 Copia el stock actual de inventory (misma transacción que el movimiento)
+    @Modifying
+    @Query(value = """
+           update catalog_stock_view v
+           join inventory i on i.product_sku = v.product_sku
+           set v.quantity = i.quantity, v.updated_at = now()
+           where v.product_sku in (:skus)
+           """, nativeQuery = true)
+    int refreshQuantities(@Param("skus") Collection<String> skus);
+
+    // Hasta qué versión del catálogo está aplicada la proyección (-1 = vacía)
+    @Query("select coalesce(max(v.catalogVersion), -1) from CatalogStockView v")
+    long appliedVersion();
+
+    // 👉 Keyset por SKU con filtros opcionales (usa los índices category/active/sku)
+    @Query("""
+           select v from CatalogStockView v
+           where (:category is null or v.category = :category)
+             and (:active is null or v.active = :active)
+             and (:afterSku is null or v.productSku > :afterSku)
+           order by v.productSku
+           """)
+    List<CatalogStockView> findPage(
+            @Param("category") String category,
+            @Param("active") Boolean active,
+            @Param("afterSku") String afterSku,
+            Pageable pageable
+    );
+}
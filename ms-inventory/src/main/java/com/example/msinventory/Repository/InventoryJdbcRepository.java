@@ -0,0 +1,40 @@
+package com.example.msinventory.Repository;
+
+import com.example.msinventory.Entity.InventoryMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// Upsert atómico de stock en lote: cada movimiento es un
+// "insert ... on duplicate key update quantity = greatest(quantity + delta, 0)".
+// Requiere el índice único uk_inventory_product_sku.
+@Repository
+@RequiredArgsConstructor
+public class InventoryJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void applyDeltas(List<InventoryMovement> movements) {
+        jdbcTemplate.batchUpdate(
+                """
+                insert into inventory (product_sku, quantity)
+                values (?, greatest(?, 0))
+                on duplicate key update quantity = greatest(quantity + ?, 0)
+                """,
+                movements,
+                BATCH_SIZE,
+                (ps, m) -> {
+                    int delta = m.getType() == InventoryMovement.MovementType.ENTRADA
+                            ? m.getQuantity()
+                            : -m.getQuantity();
+                    ps.setString(1, m.getProductSku());
+                    ps.setInt(2, delta);
+                    ps.setInt(3, delta);
+                }
+        );
+    }
+}
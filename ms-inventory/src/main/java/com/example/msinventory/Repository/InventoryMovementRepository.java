@@ -2,9 +2,19 @@ package com.example.msinventory.Repository;
 
 import com.example.msinventory.Entity.InventoryMovement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
     List<InventoryMovement> findByProductSkuOrderByCreatedAtDesc(String productSku);
+
+    @Query("""
+           select m.idempotencyKey
+           from InventoryMovement m
+           where m.idempotencyKey in :keys
+           """)
+    List<String> findExistingIdempotencyKeys(@Param("keys") Collection<String> keys);
 }
@@ -2,9 +2,38 @@ package com.example.msinventory.Repository;
 
 import com.example.msinventory.Entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductSku(String productSku);
+
+    List<Inventory> findByProductSkuIn(Collection<String> productSkus);
+
+    interface SkuQuantityProjection {
+        String getProductSku();
+        Integer getQuantity();
+    }
+
+    @Query("""
+           select i.productSku as productSku, i.quantity as quantity
+           from Inventory i
+           where i.productSku in :skus
+           """)
+    List<SkuQuantityProjection> findQuantities(@Param("skus") Collection<String> skus);
+
+    // 👉 Suma/resta atómica en la BD (sin leer-modificar-escribir en Java); nunca baja de 0.
+    //    Si el SKU no existe se crea la fila.
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+           insert into inventory (product_sku, quantity)
+           values (:sku, greatest(:delta, 0))
+           on duplicate key update quantity = greatest(quantity + :delta, 0)
+           """, nativeQuery = true)
+    int applyDelta(@Param("sku") String sku, @Param("delta") int delta);
 }
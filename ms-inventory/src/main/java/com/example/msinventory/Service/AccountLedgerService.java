@@ -0,0 +1,100 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.AccountBalanceResponse;
+import com.example.msinventory.Dto.TrialBalanceResponse;
+import com.example.msinventory.Entity.AccountingEntry;
+import com.example.msinventory.Repository.AccountDailyBalanceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Mayor por cuenta y día (account_daily_balance).
+// Un saldo en un rango es la suma de, como mucho, un bucket por día y cuenta,
+// en lugar de recorrer todos los asientos de accounting_entries.
+@Service
+public class AccountLedgerService {
+
+    private final AccountDailyBalanceRepository repository;
+
+    @Value("${accounting.ledger.rebuild.days:2}")
+    private int reconcileDays;
+
+    public AccountLedgerService(AccountDailyBalanceRepository repository) {
+        this.repository = repository;
+    }
+
+    // 👉 Se llama dentro de la transacción que guarda el asiento:
+    //    si el asiento hace rollback, el mayor también.
+    @Transactional
+    public void record(AccountingEntry entry) {
+        LocalDate day = entry.getDate().toLocalDate();
+        double amount = entry.getAmount() != null ? entry.getAmount() : 0.0;
+        repository.add(entry.getDebitAccount(), day, amount, 0.0);
+        repository.add(entry.getCreditAccount(), day, 0.0, amount);
+    }
+
+    @Transactional(readOnly = true)
+    public AccountBalanceResponse balance(String account, LocalDate from, LocalDate to) {
+        return repository.sumForAccount(account, from, to).stream()
+                .findFirst()
+                .map(t -> toResponse(t.getAccount(), t.getDebits(), t.getCredits()))
+                .orElse(new AccountBalanceResponse(account, 0.0, 0.0, 0.0));
+    }
+
+    // 👉 Balance de comprobación: débitos, créditos y saldo de cada cuenta en el rango
+    @Transactional(readOnly = true)
+    public TrialBalanceResponse trialBalance(LocalDate from, LocalDate to) {
+        List<AccountBalanceResponse> accounts = repository.sumByAccount(from, to).stream()
+                .map(t -> toResponse(t.getAccount(), t.getDebits(), t.getCredits()))
+                .toList();
+
+        double debits = accounts.stream().mapToDouble(AccountBalanceResponse::totalDebits).sum();
+        double credits = accounts.stream().mapToDouble(AccountBalanceResponse::totalCredits).sum();
+        return new TrialBalanceResponse(from, to, accounts, debits, credits);
+    }
+
+    // 🔄 Recalcula los días [from, to] desde accounting_entries
+    @Transactional
+    public void rebuild(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from y to son obligatorios");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        LocalDate end = to.plusDays(1);
+
+        repository.deleteRange(from, end);
+        repository.rebuildRange(from.atStartOfDay(), end.atStartOfDay());
+    }
+
+    // 👉 Llenado completo desde el primer asiento. Es explícito (POST /api/accounting/ledger/rebuild
+    //    sin fechas) y no se dispara al arrancar: con varias instancias cada una lo ejecutaría
+    //    a la vez sobre las mismas filas mientras se registran asientos nuevos.
+    @Transactional
+    public void rebuildAll() {
+        LocalDateTime first = repository.firstEntryDate();
+        if (first != null) {
+            rebuild(first.toLocalDate(), LocalDate.now());
+        }
+    }
+
+    // Recalcula cada noche los últimos días por si algo quedó desfasado
+    @Scheduled(cron = "${accounting.ledger.rebuild.cron:0 45 3 * * *}")
+    @Transactional
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(Math.max(reconcileDays, 1)), today);
+    }
+
+    private AccountBalanceResponse toResponse(String account, Double debits, Double credits) {
+        double d = debits != null ? debits : 0.0;
+        double c = credits != null ? credits : 0.0;
+        return new AccountBalanceResponse(account, d, c, d - c);
+    }
+}
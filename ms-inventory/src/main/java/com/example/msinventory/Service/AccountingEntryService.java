@@ -1,12 +1,18 @@
 package com.example.msinventory.Service;
 
 import com.example.msinventory.Dto.AccountBalanceResponse;
+import com.example.msinventory.Dto.AccountingEntryPageDto;
 import com.example.msinventory.Dto.AccountingSummaryResponse;
+import com.example.msinventory.Dto.TrialBalanceResponse;
 import com.example.msinventory.Entity.AccountingEntry;
 import com.example.msinventory.Repository.AccountingEntryRepository;
+import com.example.msinventory.Repository.AccountingEntrySpecs;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.stream.Collectors;
 
 
 import java.time.LocalDate;
@@ -23,9 +29,11 @@ public class AccountingEntryService {
     }
 
     private final AccountingEntryRepository repository;
+    private final AccountLedgerService ledgerService;
 
-    public AccountingEntryService(AccountingEntryRepository repository) {
+    public AccountingEntryService(AccountingEntryRepository repository, AccountLedgerService ledgerService) {
         this.repository = repository;
+        this.ledgerService = ledgerService;
     }
 
     // ================== CREACIÓN DE ASIENTOS ==================
@@ -50,7 +58,9 @@ public class AccountingEntryService {
                 referenceId,
                 description
         );
-        return repository.save(entry);
+        AccountingEntry saved = repository.save(entry);
+        ledgerService.record(saved);
+        return saved;
     }
 
 
@@ -218,7 +228,11 @@ public class AccountingEntryService {
         );
     }
 
-    // 👉 Listado de asientos para un rango (y opcionalmente tipo, búsqueda y montos)
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort ENTRY_ORDER = Sort.by("date", "id");
+
+    // 👉 Listado de asientos para un rango (y opcionalmente tipo, búsqueda y montos).
+    //    Todos los filtros se aplican en la BD; solo llegan al heap las filas que coinciden.
     @Transactional(readOnly = true)
     public List<AccountingEntry> getEntries(
             LocalDate from,
@@ -228,53 +242,72 @@ public class AccountingEntryService {
             Double minAmount,
             Double maxAmount
     ) {
-        LocalDateTime fromDt = startOfDay(from);
-        LocalDateTime toDt   = endOfDay(to);
-
-        // Primero filtramos por fechas y tipo usando el repositorio
-        List<AccountingEntry> baseList;
-        if (type == null || type.isBlank()) {
-            baseList = repository.findByDateBetween(fromDt, toDt);
-        } else {
-            baseList = repository.findByTypeAndDateBetween(type.toUpperCase(), fromDt, toDt);
-        }
-
-        // Luego aplicamos filtros en memoria (buscar/montos)
-        return baseList.stream()
-                .filter(e -> {
-                    if (search == null || search.isBlank()) return true;
-                    String s = search.toLowerCase();
-                    return (e.getDebitAccount() != null && e.getDebitAccount().toLowerCase().contains(s))
-                            || (e.getCreditAccount() != null && e.getCreditAccount().toLowerCase().contains(s))
-                            || (e.getDescription() != null && e.getDescription().toLowerCase().contains(s));
-                })
-                .filter(e -> {
-                    if (minAmount == null) return true;
-                    return e.getAmount() != null && e.getAmount() >= minAmount;
-                })
-                .filter(e -> {
-                    if (maxAmount == null) return true;
-                    return e.getAmount() != null && e.getAmount() <= maxAmount;
-                })
-                .collect(Collectors.toList());
+        return repository.findAll(entriesFilter(from, to, type, search, minAmount, maxAmount), ENTRY_ORDER);
     }
 
+    // 👉 Mismo filtro, paginado (page empieza en 0)
+    @Transactional(readOnly = true)
+    public AccountingEntryPageDto getEntriesPage(
+            LocalDate from,
+            LocalDate to,
+            String type,
+            String search,
+            Double minAmount,
+            Double maxAmount,
+            int page,
+            int size
+    ) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), ENTRY_ORDER);
+        Page<AccountingEntry> result = repository.findAll(
+                entriesFilter(from, to, type, search, minAmount, maxAmount), pageable
+        );
+        return new AccountingEntryPageDto(
+                result.getContent(),
+                result.getNumber(),
+                result.getSize(),
+                result.getTotalElements(),
+                result.getTotalPages()
+        );
+    }
 
-    // 👉 Saldos por cuenta: debitos, creditos, neto
+    private Specification<AccountingEntry> entriesFilter(
+            LocalDate from,
+            LocalDate to,
+            String type,
+            String search,
+            Double minAmount,
+            Double maxAmount
+    ) {
+        return Specification.allOf(
+                AccountingEntrySpecs.dateBetween(startOfDay(from), endOfDay(to)),
+                AccountingEntrySpecs.hasType(type),
+                AccountingEntrySpecs.amountAtLeast(minAmount),
+                AccountingEntrySpecs.amountAtMost(maxAmount),
+                AccountingEntrySpecs.containsText(search)
+        );
+    }
+
+
+    // 👉 Saldos por cuenta: debitos, creditos, neto (desde el mayor diario)
     @Transactional(readOnly = true)
     public AccountBalanceResponse getAccountBalance(LocalDate from, LocalDate to, String account) {
-        LocalDateTime fromDt = startOfDay(from);
-        LocalDateTime toDt   = endOfDay(to);
-
-        Double debits  = repository.sumDebitsForAccount(account, fromDt, toDt);
-        Double credits = repository.sumCreditsForAccount(account, fromDt, toDt);
+        return ledgerService.balance(account, from, to);
+    }
 
-        if (debits == null) debits = 0.0;
-        if (credits == null) credits = 0.0;
+    // 👉 Balance de comprobación de todas las cuentas
+    @Transactional(readOnly = true)
+    public TrialBalanceResponse getTrialBalance(LocalDate from, LocalDate to) {
+        return ledgerService.trialBalance(from, to);
+    }
 
-        Double net = debits - credits;
+    @Transactional
+    public void rebuildLedger(LocalDate from, LocalDate to) {
+        ledgerService.rebuild(from, to);
+    }
 
-        return new AccountBalanceResponse(account, debits, credits, net);
+    @Transactional
+    public void rebuildWholeLedger() {
+        ledgerService.rebuildAll();
     }
 
     // 👉 Obtener un asiento puntual
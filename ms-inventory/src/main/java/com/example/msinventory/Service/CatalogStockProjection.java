@@ -0,0 +1,97 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.CatalogChangesDto;
+import com.example.msinventory.Dto.CatalogStockDto;
+import com.example.msinventory.Dto.CatalogStockPageDto;
+import com.example.msinventory.Entity.CatalogStockView;
+import com.example.msinventory.Event.StockChangedEvent;
+import com.example.msinventory.Repository.CatalogStockViewRepository;
+import com.example.msinventory.feign.ProductClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Modelo de lectura "producto + stock" para las pantallas del catálogo (catalog_stock_view).
+// - Datos del producto: se siguen con el feed de cambios de ms-catalogo (/products/changes).
+// - Stock: se copia en la MISMA transacción de cada movimiento (StockChangedEvent).
+// Así el listado sale de una sola tabla y una sola llamada, sin cruzar servicios en el navegador.
+@Service
+@RequiredArgsConstructor
+public class CatalogStockProjection {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final CatalogStockViewRepository viewRepository;
+    private final ProductClient productClient;
+    private final ProductCatalogCache productCatalogCache;
+    private final CatalogStockWriter writer;
+
+    @Value("${catalog.projection.page-size:500}")
+    private int changesPageSize;
+
+    // 🔄 Trae del catálogo lo que cambió desde la última versión aplicada.
+    //    Sin transacción aquí: primero la llamada remota, luego la escritura (CatalogStockWriter).
+    @Scheduled(
+            fixedDelayString = "${catalog.projection.poll-ms:10000}",
+            initialDelayString = "${catalog.projection.initial-delay-ms:5000}"
+    )
+    //    Página a página (catalog.projection.page-size): cada una en su propia transacción corta.
+    public void syncCatalog() {
+        long since = viewRepository.appliedVersion();
+        CatalogChangesDto feed;
+        do {
+            try {
+                feed = productClient.getChanges(since, changesPageSize);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ No se pudo leer el feed de ms-catalogo (since=" + since + "): " + e.getMessage());
+                return;
+            }
+            if (feed.changes() == null || feed.changes().isEmpty()) return;
+
+            writer.applyChanges(feed.changes());
+            // El producto cambió: que la caché local no siga sirviendo la copia anterior
+            feed.changes().forEach(p -> productCatalogCache.invalidate(p.sku()));
+
+            if (feed.version() == null || feed.version() <= since) return;   // sin avance: no insistir
+            since = feed.version();
+        } while (feed.hasMore());
+    }
+
+    // 👉 Sin @TransactionalEventListener a propósito: corre dentro de la transacción del movimiento
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.productSkus() == null || event.productSkus().isEmpty()) return;
+        viewRepository.refreshQuantities(event.productSkus());
+    }
+
+    public CatalogStockPageDto page(int size, String cursor, String category, Boolean active) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String cat = (category == null || category.isBlank()) ? null : category;
+        String after = (cursor == null || cursor.isBlank()) ? null : cursor;
+
+        List<CatalogStockView> rows = viewRepository.findPage(cat, active, after, PageRequest.of(0, limit));
+        List<CatalogStockDto> items = rows.stream().map(this::toDto).toList();
+        String next = rows.size() == limit ? rows.get(rows.size() - 1).getProductSku() : null;
+        return new CatalogStockPageDto(items, next);
+    }
+
+    private CatalogStockDto toDto(CatalogStockView v) {
+        return new CatalogStockDto(
+                v.getProductId(),
+                v.getProductSku(),
+                v.getName(),
+                v.getUnit(),
+                v.getCategory(),
+                v.getDescription(),
+                v.getActive(),
+                v.getUnitsPerBox(),
+                v.getUnitsPerPack(),
+                v.getQuantity()
+        );
+    }
+}
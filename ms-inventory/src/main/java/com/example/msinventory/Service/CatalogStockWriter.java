@@ -0,0 +1,37 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.ProductDto;
+import com.example.msinventory.Repository.CatalogStockViewRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Escritura de los cambios del catálogo en catalog_stock_view.
+// Va en su propio bean para que la transacción empiece DESPUÉS de la llamada a ms-catalogo
+// (la conexión del pool no queda retenida mientras se espera la respuesta remota).
+@Component
+@RequiredArgsConstructor
+public class CatalogStockWriter {
+
+    private final CatalogStockViewRepository viewRepository;
+
+    @Transactional
+    public void applyChanges(List<ProductDto> changes) {
+        for (ProductDto p : changes) {
+            viewRepository.upsertProduct(
+                    p.sku(),
+                    p.id(),
+                    p.name(),
+                    p.unit(),
+                    p.category(),
+                    p.description(),
+                    p.active() == null || p.active(),
+                    p.unitsPerBox(),
+                    p.unitsPerPack(),
+                    p.version() != null ? p.version() : 0L
+            );
+        }
+    }
+}
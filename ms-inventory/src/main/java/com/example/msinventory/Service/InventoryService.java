@@ -3,24 +3,83 @@ package com.example.msinventory.Service;
 import com.example.msinventory.Dto.*;
 import com.example.msinventory.Entity.Inventory;
 import com.example.msinventory.Entity.InventoryMovement;
+import com.example.msinventory.Event.StockChangedEvent;
+import com.example.msinventory.Repository.InventoryJdbcRepository;
 import com.example.msinventory.Repository.InventoryMovementRepository;
 import com.example.msinventory.Repository.InventoryRepository;
-import com.example.msinventory.feign.ProductClient;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
 
+    private static final int MAX_SKUS_PER_QUERY = 5000;
+
     private final InventoryRepository inventoryRepository;
     private final InventoryMovementRepository movementRepository;
-    private final ProductClient productClient;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final RecentMovementKeys recentMovementKeys;
+    private final ProductCatalogCache productCatalogCache;
+    private final StockReadCache stockReadCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Datos del producto desde la caché local del catálogo
+    public ProductDto getProduct(String sku) {
+        try {
+            return productCatalogCache.getBySku(sku);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Producto no disponible para sku: " + sku
+            );
+        }
+    }
+
+    // Varios productos: lo que falte en caché se pide a ms-catalogo en una sola llamada
+    public List<ProductDto> getProducts(List<String> skus) {
+        Set<String> distinct = distinctSkus(skus);
+        Map<String, ProductDto> found;
+        try {
+            found = productCatalogCache.getAll(distinct);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Catálogo no disponible"
+            );
+        }
+        return distinct.stream().map(found::get).filter(p -> p != null).toList();
+    }
+
+    // SKUs sin vacíos ni repetidos, en el orden pedido y con tope por consulta
+    private Set<String> distinctSkus(List<String> skus) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String sku : skus) {
+            if (sku != null && !sku.isBlank()) {
+                distinct.add(sku.trim());
+            }
+        }
+        if (distinct.size() > MAX_SKUS_PER_QUERY) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Máximo " + MAX_SKUS_PER_QUERY + " SKUs por consulta"
+            );
+        }
+        return distinct;
+    }
 
     public Inventory getStock(String sku) {
         return inventoryRepository.findByProductSku(sku)
@@ -30,53 +89,162 @@ public class InventoryService {
                 ));
     }
 
+    // 👉 Stock de muchos SKUs en una llamada (desde la caché de lectura), en el orden pedido
+    public List<StockSummaryDto> getStocks(List<String> skus) {
+        Set<String> distinct = distinctSkus(skus);
+        Map<String, StockSummaryDto> found = stockReadCache.getAll(distinct);
+        return distinct.stream().map(found::get).toList();
+    }
+
+    // 👉 Un solo movimiento. La referencia es obligatoria: junto con el SKU es la clave de
+    //    idempotencia, y sin ella un reintento descontaría dos veces. Mismo camino que el lote,
+    //    así que responde APPLIED, DUPLICATE (ya aplicado antes) o REJECTED con el motivo.
+    @Transactional
+    public StockItemResultDto updateStock(StockUpdateRequest dto) {
+        if (dto.reference() == null || dto.reference().isBlank()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "reference es obligatoria (identifica el movimiento ante reintentos)"
+            );
+        }
+        StockBatchResultDto result = updateStockBatch(
+                new StockBatchUpdateRequest(dto.reference(), dto.reason(), List.of(dto))
+        );
+        return result.items().get(0);
+    }
+
+    // 👉 Aplica todos los movimientos de una misma referencia en UNA sola transacción:
+    //    upserts atómicos de inventario y movimientos insertados con batching JDBC,
+    //    y un solo SELECT final para informar el stock resultante por SKU.
+    //    Los SKU cuya clave (referencia + SKU) ya fue aplicada vuelven como DUPLICATE.
     @Transactional
-    public void updateStock(StockUpdateRequest dto) {
-        if (dto.productSku() == null || dto.productSku().isBlank()) {
-            throw new IllegalArgumentException("SKU no puede ser vacío");
+    public StockBatchResultDto updateStockBatch(StockBatchUpdateRequest dto) {
+        if (dto.items() == null || dto.items().isEmpty()) {
+            throw new IllegalArgumentException("El lote no tiene ítems");
         }
 
-        // Buscar o crear inventario
-        Inventory inv = inventoryRepository
-                .findByProductSku(dto.productSku())
-                .orElseGet(() -> {
-                    Inventory i = new Inventory();
-                    i.setProductSku(dto.productSku());
-                    i.setQuantity(0);
-                    return i;
-                });
+        Set<String> appliedKeys = findAppliedKeys(dto);
+        Set<String> batchKeys = new HashSet<>();
 
-        int current = inv.getQuantity() == null ? 0 : inv.getQuantity();
-        int delta = dto.quantity() != null ? dto.quantity() : 0;
+        List<InventoryMovement> movements = new ArrayList<>();
+        // null = aplicado; se completa con el stock resultante al final
+        List<StockItemResultDto> results = new ArrayList<>();
 
-        InventoryMovement.MovementType type;
-        try {
-            type = InventoryMovement.MovementType.valueOf(dto.type().toUpperCase());
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Tipo de movimiento inválido: " + dto.type());
+        for (StockUpdateRequest item : dto.items()) {
+            if (item.productSku() == null || item.productSku().isBlank()) {
+                results.add(rejected(item, "SKU no puede ser vacío"));
+                continue;
+            }
+            if (item.quantity() == null || item.quantity() < 0) {
+                results.add(rejected(item, "Cantidad inválida: " + item.quantity()));
+                continue;
+            }
+
+            InventoryMovement.MovementType type;
+            try {
+                type = InventoryMovement.MovementType.valueOf(item.type().toUpperCase());
+            } catch (Exception e) {
+                results.add(rejected(item, "Tipo de movimiento inválido: " + item.type()));
+                continue;
+            }
+
+            String reference = item.reference() != null ? item.reference() : dto.reference();
+            String key = idempotencyKey(reference, item.productSku());
+            if (key != null && appliedKeys.contains(key)) {
+                results.add(new StockItemResultDto(
+                        item.productSku(), type.name(), item.quantity(), null,
+                        StockItemResultDto.Status.DUPLICATE, "Movimiento ya aplicado: " + key
+                ));
+                continue;
+            }
+            if (key != null && !batchKeys.add(key)) {
+                results.add(rejected(item, "SKU repetido en la referencia " + reference));
+                continue;
+            }
+
+            InventoryMovement movement = new InventoryMovement();
+            movement.setProductSku(item.productSku());
+            movement.setQuantity(item.quantity());
+            movement.setType(type);
+            movement.setReference(reference);
+            movement.setReason(item.reason() != null ? item.reason() : dto.reason());
+            movement.setIdempotencyKey(key);
+            movements.add(movement);
+            results.add(null);
+        }
+
+        if (!movements.isEmpty()) {
+            inventoryJdbcRepository.applyDeltas(movements);
+            // Con ids por secuencia Hibernate agrupa estos INSERT (hibernate.jdbc.batch_size)
+            movementRepository.saveAll(movements);
+            movementRepository.flush();
+            recentMovementKeys.rememberAfterCommit(batchKeys);
+
+            Set<String> skus = new HashSet<>();
+            movements.forEach(m -> skus.add(m.getProductSku()));
+
+            Map<String, Integer> stockAfter = new HashMap<>();
+            inventoryRepository.findQuantities(skus)
+                    .forEach(q -> stockAfter.put(q.getProductSku(), q.getQuantity()));
+            eventPublisher.publishEvent(new StockChangedEvent(skus));
+
+            Iterator<InventoryMovement> applied = movements.iterator();
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) != null) continue;
+                InventoryMovement m = applied.next();
+                results.set(i, new StockItemResultDto(
+                        m.getProductSku(), m.getType().name(), m.getQuantity(), stockAfter.get(m.getProductSku()),
+                        StockItemResultDto.Status.APPLIED, null
+                ));
+            }
         }
 
-        int newQty = current;
-        if (type == InventoryMovement.MovementType.ENTRADA) {
-            newQty = current + delta;
-        } else if (type == InventoryMovement.MovementType.SALIDA) {
-            newQty = current - delta;
-            if (newQty < 0) {
-                newQty = 0; // o lanzar excepción si quieres evitar negativos
+        int applied = movements.size();
+        int duplicates = (int) results.stream()
+                .filter(r -> r.status() == StockItemResultDto.Status.DUPLICATE)
+                .count();
+        return new StockBatchResultDto(
+                dto.reference(), applied, duplicates, results.size() - applied - duplicates, results
+        );
+    }
+
+    // Claves del lote que ya fueron aplicadas: primero la caché en memoria, luego un solo IN a la BD
+    private Set<String> findAppliedKeys(StockBatchUpdateRequest dto) {
+        Set<String> applied = new HashSet<>();
+        List<String> toCheck = new ArrayList<>();
+
+        for (StockUpdateRequest item : dto.items()) {
+            String key = idempotencyKey(
+                    item.reference() != null ? item.reference() : dto.reference(),
+                    item.productSku()
+            );
+            if (key == null) continue;
+            if (recentMovementKeys.contains(key)) {
+                applied.add(key);
+            } else {
+                toCheck.add(key);
             }
         }
 
-        inv.setQuantity(newQty);
-        inventoryRepository.save(inv);
-
-        // Registrar movimiento
-        InventoryMovement movement = new InventoryMovement();
-        movement.setProductSku(dto.productSku());
-        movement.setQuantity(delta);
-        movement.setType(type);
-        movement.setReference(dto.reference());
-        movement.setReason(dto.reason());
-        movementRepository.save(movement);
+        if (!toCheck.isEmpty()) {
+            applied.addAll(movementRepository.findExistingIdempotencyKeys(toCheck));
+        }
+        return applied;
+    }
+
+    // Sin referencia no hay forma de reconocer un reintento: el movimiento se aplica siempre
+    private String idempotencyKey(String reference, String sku) {
+        if (reference == null || reference.isBlank() || sku == null || sku.isBlank()) {
+            return null;
+        }
+        return reference + ":" + sku;
+    }
+
+    private StockItemResultDto rejected(StockUpdateRequest item, String message) {
+        return new StockItemResultDto(
+                item.productSku(), item.type(), item.quantity(), null,
+                StockItemResultDto.Status.REJECTED, message
+        );
     }
 
     public List<MovementDto> getMovements(String productSku) {
@@ -0,0 +1,81 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.ProductDto;
+import com.example.msinventory.feign.ProductClient;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Caché local de productos del catálogo (read-through sobre ProductClient).
+// - refreshAfterWrite: pasado ese tiempo el siguiente acceso devuelve el valor guardado
+//   y lo recarga en segundo plano (refresh-ahead / stale-while-revalidate).
+// - Si ms-catalogo no responde, la recarga falla y se sigue sirviendo el último producto bueno
+//   hasta expireAfterWrite. Nunca se guardan datos inventados.
+// Métricas: /actuator/metrics/cache.gets?tag=cache:catalog.products (hit/miss) y cache.size
+@Component
+public class ProductCatalogCache {
+
+    private static final int MAX_SKUS_PER_CALL = 5000;
+
+    private final LoadingCache<String, ProductDto> products;
+
+    public ProductCatalogCache(
+            ProductClient productClient,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.cache.max-size:20000}") long maxSize,
+            @Value("${catalog.cache.refresh-minutes:5}") long refreshMinutes,
+            @Value("${catalog.cache.expire-hours:24}") long expireHours
+    ) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofMinutes(refreshMinutes))
+                .expireAfterWrite(Duration.ofHours(expireHours))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ProductDto load(String sku) {
+                        return productClient.getBySku(sku);
+                    }
+
+                    // 👉 getAll: los SKUs que faltan se piden juntos, en llamadas de hasta
+                    //    MAX_SKUS_PER_CALL (el tope que acepta ms-catalogo en /by-skus)
+                    @Override
+                    public Map<String, ProductDto> loadAll(Set<? extends String> skus) {
+                        List<String> pending = List.copyOf(skus);
+                        Map<String, ProductDto> loaded = new HashMap<>();
+                        for (int i = 0; i < pending.size(); i += MAX_SKUS_PER_CALL) {
+                            productClient.getBySkus(pending.subList(i, Math.min(i + MAX_SKUS_PER_CALL, pending.size())))
+                                    .forEach(p -> loaded.putIfAbsent(p.sku(), p));
+                        }
+                        return loaded;
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "catalog.products");
+    }
+
+    // Lanza excepción si el producto no está en caché y ms-catalogo no lo puede devolver
+    public ProductDto getBySku(String sku) {
+        return products.get(sku);
+    }
+
+    // Los que ya están en caché no generan llamada; los SKUs inexistentes no aparecen en el mapa
+    public Map<String, ProductDto> getAll(Collection<String> skus) {
+        return products.getAll(skus);
+    }
+
+    public void invalidate(String sku) {
+        products.invalidate(sku);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.msinventory.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Caché en memoria (LRU acotado) de las últimas claves de idempotencia aplicadas.
+// Evita ir a la BD en los reintentos más comunes; la BD (índice único) sigue siendo la fuente de verdad.
+@Component
+public class RecentMovementKeys {
+
+    private final Set<String> keys;
+
+    public RecentMovementKeys(@Value("${inventory.idempotency.cache-size:10000}") int maxSize) {
+        this.keys = Collections.newSetFromMap(Collections.synchronizedMap(
+                new LinkedHashMap<String, Boolean>(1024, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > maxSize;
+                    }
+                }
+        ));
+    }
+
+    public boolean contains(String key) {
+        return key != null && keys.contains(key);
+    }
+
+    // Solo se recuerdan después del commit: si la transacción hace rollback,
+    // un reintento posterior debe poder aplicarse.
+    public void rememberAfterCommit(Collection<String> newKeys) {
+        List<String> toRemember = newKeys.stream().filter(k -> k != null).toList();
+        if (toRemember.isEmpty()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.addAll(toRemember);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.addAll(toRemember);
+            }
+        });
+    }
+}
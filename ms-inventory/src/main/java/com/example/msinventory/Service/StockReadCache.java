@@ -0,0 +1,76 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.StockSummaryDto;
+import com.example.msinventory.Entity.Inventory;
+import com.example.msinventory.Event.StockChangedEvent;
+import com.example.msinventory.Repository.InventoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Caché de lectura del stock por SKU (para el listado de productos y consultas masivas).
+// - Los SKUs que faltan se leen juntos con un IN por bloque, nunca uno por uno.
+// - Cada movimiento confirmado (StockChangedEvent, tras el commit) invalida sus SKUs.
+// - expireAfterWrite acota cuánto puede durar un valor leído justo durante un commit.
+// Métricas: /actuator/metrics/cache.gets?tag=cache:inventory.stock
+@Component
+public class StockReadCache {
+
+    private static final int IN_CHUNK = 1000;
+
+    private final InventoryRepository inventoryRepository;
+    private final Cache<String, StockSummaryDto> stock;
+
+    public StockReadCache(
+            InventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.stock-cache.max-size:50000}") long maxSize,
+            @Value("${inventory.stock-cache.expire-seconds:60}") long expireSeconds
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.stock = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(expireSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, stock, "inventory.stock");
+    }
+
+    public Map<String, StockSummaryDto> getAll(Set<String> skus) {
+        return stock.getAll(skus, this::load);
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        stock.invalidateAll(event.productSkus());
+    }
+
+    // Los SKUs sin fila también se guardan (stock 0) para no volver a consultarlos
+    private Map<String, StockSummaryDto> load(Set<? extends String> skus) {
+        List<String> pending = new ArrayList<>(skus);
+        Map<String, Integer> bySku = new HashMap<>();
+        for (int i = 0; i < pending.size(); i += IN_CHUNK) {
+            for (Inventory inv : inventoryRepository.findByProductSkuIn(pending.subList(i, Math.min(i + IN_CHUNK, pending.size())))) {
+                bySku.put(inv.getProductSku(), inv.getQuantity() != null ? inv.getQuantity() : 0);
+            }
+        }
+
+        Map<String, StockSummaryDto> result = new HashMap<>();
+        for (String sku : pending) {
+            result.put(sku, new StockSummaryDto(sku, bySku.getOrDefault(sku, 0)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.*;
+import com.example.msinventory.Entity.InventoryMovement;
+import com.example.msinventory.Repository.InventoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reservas de stock en memoria, sin bloquear la fila de inventario.
+// Cada SKU tiene su propia celda (CAS sobre un AtomicInteger), así que las
+// ráfagas sobre pocos SKU no se serializan en la BD. Las confirmaciones se
+// vuelcan a la tabla inventory en lote (write-behind).
+// 👉 La reserva lleva la referencia de la venta ("SALE-15") y el movimiento usa la misma clave
+//    que el outbox de ventas ("SALE-15:<sku>"): si la venta también se completa por
+//    SaleService.complete, inventario descarta el segundo movimiento como DUPLICATE.
+//    Por eso hay como máximo una reserva abierta por (referencia, SKU), con las unidades
+//    base que la venta descontará de ese SKU.
+// El stock base se relee de la BD en cada retención (ve movimientos de otras instancias),
+// pero las retenciones viven en memoria: con varias réplicas, las reservas de un SKU
+// deben ir siempre a la misma instancia.
+@Service
+public class StockReservationService {
+
+    private static final String FLUSH_REASON = "Reserva confirmada";
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryService inventoryService;
+    private final Duration ttl;
+
+    private final Map<String, SkuCell> cells = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // "referencia:SKU" → id de la reserva abierta o confirmada sin volcar
+    private final Map<String, String> openByKey = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Reservation> confirmed = new ConcurrentLinkedQueue<>();
+
+    public StockReservationService(
+            InventoryRepository inventoryRepository,
+            InventoryService inventoryService,
+            @Value("${inventory.reservations.ttl-minutes:15}") long ttlMinutes
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryService = inventoryService;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    private static final class SkuCell {
+        volatile int onHand;                         // stock leído de la BD en la última retención
+        final AtomicInteger held = new AtomicInteger(); // reservado + confirmado sin volcar
+
+        int available() {
+            return onHand - held.get();
+        }
+    }
+
+    private record Reservation(String id, String productSku, int quantity, String reference, Instant expiresAt) {
+        String key() {
+            return reference + ":" + productSku;
+        }
+    }
+
+    // ================== API ==================
+
+    public ReservationDto reserve(ReservationRequest req) {
+        if (req.productSku() == null || req.productSku().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SKU no puede ser vacío");
+        }
+        if (req.quantity() == null || req.quantity() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La cantidad debe ser mayor que 0");
+        }
+        if (req.reference() == null || req.reference().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La referencia de la venta es obligatoria");
+        }
+
+        Reservation r = new Reservation(
+                UUID.randomUUID().toString(),
+                req.productSku(),
+                req.quantity(),
+                req.reference(),
+                Instant.now().plus(ttl)
+        );
+        String previous = openByKey.putIfAbsent(r.key(), r.id());
+        if (previous != null) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Ya hay una reserva de " + req.reference() + " para " + req.productSku() + " (" + previous + ")"
+            );
+        }
+
+        SkuCell cell = cell(req.productSku());
+        cell.onHand = readOnHand(req.productSku());
+        while (true) {
+            int held = cell.held.get();
+            if (cell.onHand - held < r.quantity()) {
+                openByKey.remove(r.key(), r.id());
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "Stock insuficiente para " + req.productSku() + " (disponible: " + (cell.onHand - held) + ")"
+                );
+            }
+            if (cell.held.compareAndSet(held, held + r.quantity())) {
+                break;
+            }
+        }
+
+        reservations.put(r.id(), r);
+        return toDto(r, cell);
+    }
+
+    // La reserva pasa a la cola de volcado; el stock sigue retenido hasta que llegue a la BD
+    public ReservationDto confirm(String reservationId) {
+        Reservation r = take(reservationId);
+        confirmed.add(r);
+        return toDto(r, cells.get(r.productSku()));
+    }
+
+    public ReservationDto release(String reservationId) {
+        Reservation r = take(reservationId);
+        return toDto(r, releaseHold(r));
+    }
+
+    public StockAvailabilityDto availability(String sku) {
+        SkuCell cell = cell(sku);
+        cell.onHand = readOnHand(sku);
+        int held = cell.held.get();
+        return new StockAvailabilityDto(sku, cell.onHand, held, cell.onHand - held);
+    }
+
+    // ================== WRITE-BEHIND ==================
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.flush-delay-ms:1000}")
+    public void flushConfirmed() {
+        List<Reservation> drained = new ArrayList<>();
+        Reservation r;
+        while ((r = confirmed.poll()) != null) {
+            drained.add(r);
+        }
+        if (drained.isEmpty()) return;
+
+        // Un movimiento por reserva con la referencia de la venta: misma clave que el outbox de
+        // ventas. Las claves no se repiten en el lote (una reserva abierta por referencia y SKU).
+        List<StockUpdateRequest> items = drained.stream()
+                .map(res -> new StockUpdateRequest(
+                        res.productSku(),
+                        res.quantity(),
+                        InventoryMovement.MovementType.SALIDA.name(),
+                        res.reference(),
+                        FLUSH_REASON
+                ))
+                .toList();
+
+        StockBatchResultDto result;
+        try {
+            result = inventoryService.updateStockBatch(new StockBatchUpdateRequest(null, FLUSH_REASON, items));
+        } catch (Exception e) {
+            System.err.println("⚠️ Reservas: no se pudo volcar el lote (" + e.getMessage() + "), se reintenta");
+            confirmed.addAll(drained);
+            return;
+        }
+
+        // Los resultados vienen en el mismo orden que los ítems
+        for (int i = 0; i < drained.size(); i++) {
+            Reservation res = drained.get(i);
+            StockItemResultDto item = i < result.items().size() ? result.items().get(i) : null;
+
+            if (item != null && (item.status() == StockItemResultDto.Status.APPLIED
+                    || item.status() == StockItemResultDto.Status.DUPLICATE)) {
+                // DUPLICATE = la venta ya se descontó (volcado anterior o outbox de ventas)
+                releaseHold(res);
+            } else if (item != null && item.status() == StockItemResultDto.Status.REJECTED) {
+                // No se reintenta (volvería a rechazarse); la retención se libera para no bloquear stock
+                System.err.println("⚠️ Reservas: movimiento rechazado para " + res.key()
+                        + " (" + item.message() + ")");
+                releaseHold(res);
+            } else {
+                confirmed.add(res);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.expire-delay-ms:30000}")
+    public void expireReservations() {
+        Instant now = Instant.now();
+        reservations.values().stream()
+                .filter(r -> r.expiresAt().isBefore(now))
+                .map(Reservation::id)
+                .toList()
+                .forEach(id -> {
+                    Reservation r = reservations.remove(id);
+                    if (r != null) {
+                        releaseHold(r);
+                    }
+                });
+    }
+
+    // ================== HELPERS ==================
+
+    private SkuCell cell(String sku) {
+        return cells.computeIfAbsent(sku, k -> new SkuCell());
+    }
+
+    // Stock actual en la BD: incluye movimientos hechos por otras instancias
+    private int readOnHand(String sku) {
+        return inventoryRepository.findByProductSku(sku)
+                .map(inv -> inv.getQuantity() == null ? 0 : inv.getQuantity())
+                .orElse(0);
+    }
+
+    private SkuCell releaseHold(Reservation r) {
+        openByKey.remove(r.key(), r.id());
+        SkuCell cell = cells.get(r.productSku());
+        cell.held.addAndGet(-r.quantity());
+        return cell;
+    }
+
+    private Reservation take(String reservationId) {
+        Reservation r = reservations.remove(reservationId);
+        if (r == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva no encontrada o expirada: " + reservationId);
+        }
+        return r;
+    }
+
+    private ReservationDto toDto(Reservation r, SkuCell cell) {
+        return new ReservationDto(
+                r.id(),
+                r.productSku(),
+                r.quantity(),
+                r.reference(),
+                r.expiresAt(),
+                cell != null ? cell.available() : null
+        );
+    }
+}
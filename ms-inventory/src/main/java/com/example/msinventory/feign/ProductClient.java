@@ -1,10 +1,18 @@
 package com.example.msinventory.feign;
 
+import com.example.msinventory.Dto.CatalogChangesDto;
 import com.example.msinventory.Dto.ProductDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
+
 @FeignClient(name = "ms-catalogo-service", path = "/products")
 public interface ProductClient {
 
@@ -12,17 +20,27 @@ public interface ProductClient {
     @CircuitBreaker(name = "productPorSkuCB", fallbackMethod = "fallbackGetBySku")
     ProductDto getBySku(@PathVariable String sku);
 
+    // Sin datos inventados: ProductCatalogCache necesita saber que falló para
+    // seguir sirviendo el último producto bueno que tenga guardado
     default ProductDto fallbackGetBySku(String sku, Throwable e) {
-        System.err.println("⚠️ CircuitBreaker: ms-catalogo-service no disponible (SKU: " + sku + ")");
-        return new ProductDto(
-                0L,                  // id temporal
-                sku,                 // SKU que se buscó
-                "Producto temporal", // nombre por defecto
-                "N/A",               // unidad
-                "N/A",               // categoría
-                0.0,                   // peso
-                "Servicio no disponible temporalmente", // descripción
-                false                // activo
-        );
+        throw new IllegalStateException("ms-catalogo-service no disponible (SKU: " + sku + ")", e);
+    }
+
+    // Varios SKUs en una llamada (lista en el cuerpo: no hay límite de longitud de URL)
+    @PostMapping("/by-skus")
+    @CircuitBreaker(name = "productPorSkuCB", fallbackMethod = "fallbackGetBySkus")
+    List<ProductDto> getBySkus(@RequestBody Collection<String> skus);
+
+    default List<ProductDto> fallbackGetBySkus(Collection<String> skus, Throwable e) {
+        throw new IllegalStateException("ms-catalogo-service no disponible (" + skus.size() + " SKUs)", e);
+    }
+
+    // Feed de cambios del catálogo (since=-1 → todo), de a `limit` productos
+    @GetMapping("/changes")
+    @CircuitBreaker(name = "productPorSkuCB", fallbackMethod = "fallbackGetChanges")
+    CatalogChangesDto getChanges(@RequestParam("since") long since, @RequestParam("limit") int limit);
+
+    default CatalogChangesDto fallbackGetChanges(long since, int limit, Throwable e) {
+        throw new IllegalStateException("ms-catalogo-service no disponible (changes since " + since + ")", e);
     }
 }
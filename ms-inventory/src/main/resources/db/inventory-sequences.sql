@@ -0,0 +1,12 @@
+-- Ejecutar una sola vez en ms_inventario al desplegar la versión con ids por secuencia
+-- en InventoryMovement y AccountingEntry. MySQL no tiene secuencias: Hibernate las emula con
+-- una tabla (next_val) y el optimizador pooled reserva bloques de 50 ids.
+-- Se arranca por encima del mayor id existente para no chocar con los AUTO_INCREMENT previos.
+
+CREATE TABLE IF NOT EXISTS inventory_movement_seq (next_val BIGINT);
+DELETE FROM inventory_movement_seq;
+INSERT INTO inventory_movement_seq (next_val) SELECT COALESCE(MAX(id), 0) + 100 FROM inventory_movements;
+
+CREATE TABLE IF NOT EXISTS accounting_entry_seq (next_val BIGINT);
+DELETE FROM accounting_entry_seq;
+INSERT INTO accounting_entry_seq (next_val) SELECT COALESCE(MAX(id), 0) + 100 FROM accounting_entries;
@@ -0,0 +1,20 @@
+-- Ejecutar una sola vez en ms_inventario ANTES de desplegar la versión con
+-- uk_inventory_product_sku (ddl-auto=update no puede crear el índice si hay SKU repetidos).
+
+-- 1) Consolidar en la fila más antigua la cantidad de los SKU duplicados
+UPDATE inventory i
+JOIN (SELECT product_sku, MIN(id) AS keep_id, SUM(quantity) AS total
+      FROM inventory
+      GROUP BY product_sku
+      HAVING COUNT(*) > 1) d ON i.id = d.keep_id
+SET i.quantity = d.total;
+
+-- 2) Eliminar las filas sobrantes
+DELETE i FROM inventory i
+JOIN (SELECT product_sku, MIN(id) AS keep_id
+      FROM inventory
+      GROUP BY product_sku
+      HAVING COUNT(*) > 1) d ON i.product_sku = d.product_sku AND i.id <> d.keep_id;
+
+-- 3) Índice único que usa el upsert atómico (insert ... on duplicate key update)
+ALTER TABLE inventory ADD CONSTRAINT uk_inventory_product_sku UNIQUE (product_sku);
@@ -0,0 +1,56 @@
+package com.example.msinventory.Repository;
+
+import com.example.msinventory.Entity.AccountingEntry;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AccountingEntrySpecsTest {
+
+    @Test
+    void escapeLikeEscapesWildcardsAndTheEscapeCharacter() {
+        assertThat(AccountingEntrySpecs.escapeLike("10%")).isEqualTo("10\\%");
+        assertThat(AccountingEntrySpecs.escapeLike("caja_chica")).isEqualTo("caja\\_chica");
+        assertThat(AccountingEntrySpecs.escapeLike("a\\b")).isEqualTo("a\\\\b");
+        // La barra se escapa antes: "\%" no debe quedar como un % escapado a medias
+        assertThat(AccountingEntrySpecs.escapeLike("\\%")).isEqualTo("\\\\\\%");
+        assertThat(AccountingEntrySpecs.escapeLike("Ventas")).isEqualTo("Ventas");
+    }
+
+    @Test
+    void blankFiltersAreIgnored() {
+        assertThat(AccountingEntrySpecs.containsText(null)).isNull();
+        assertThat(AccountingEntrySpecs.containsText("  ")).isNull();
+        assertThat(AccountingEntrySpecs.hasType("")).isNull();
+        assertThat(AccountingEntrySpecs.amountAtLeast(null)).isNull();
+        assertThat(AccountingEntrySpecs.amountAtMost(null)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void containsTextSearchesAllTextColumnsWithEscapedTrimmedPattern() {
+        Root<AccountingEntry> root = mock(Root.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        Path<String> debit = mock(Path.class);
+        Path<String> credit = mock(Path.class);
+        Path<String> description = mock(Path.class);
+        doReturn(debit).when(root).get("debitAccount");
+        doReturn(credit).when(root).get("creditAccount");
+        doReturn(description).when(root).get("description");
+
+        AccountingEntrySpecs.containsText("  50%_dto ").toPredicate(root, query, cb);
+
+        String pattern = "%50\\%\\_dto%";
+        verify(cb).like(debit, pattern, '\\');
+        verify(cb).like(credit, pattern, '\\');
+        verify(cb).like(description, pattern, '\\');
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.msinventory.Repository;
+
+import com.example.msinventory.Entity.InventoryMovement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Miles de movimientos simultáneos sobre un mismo SKU contra un MySQL real:
+// el upsert "quantity = greatest(quantity + delta, 0)" no debe perder ninguna actualización.
+// Se omite si no hay Docker disponible.
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryJdbcRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)   // cada movimiento en su propia transacción
+class InventoryDeltaConcurrencyTest {
+
+    private static final String SKU = "PRD-HOT";
+    private static final int THREADS = 32;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    void parallelSalidaAndEntradaOnOneSkuLoseNoUpdates() throws Exception {
+        seed(10_000);
+
+        // 2000 SALIDA de 2 y 2000 ENTRADA de 1 intercaladas: nunca baja de 0, así que el
+        // resultado es exacto sin importar el orden → 10000 - 4000 + 2000
+        List<Runnable> calls = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            calls.add(() -> delta(-2));
+            calls.add(() -> delta(1));
+        }
+        runInParallel(calls);
+
+        assertThat(quantity()).isEqualTo(8_000);
+    }
+
+    @Test
+    void parallelSalidaBeyondStockClampsAtZero() throws Exception {
+        seed(50);
+
+        List<Runnable> calls = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            calls.add(() -> delta(-1));
+        }
+        runInParallel(calls);
+
+        assertThat(quantity()).isZero();
+    }
+
+    @Test
+    void parallelBatchUpsertsLoseNoUpdates() throws Exception {
+        seed(0);
+
+        // 500 lotes de 10 ENTRADA de 1 (batch JDBC, como updateStockBatch)
+        List<Runnable> calls = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            calls.add(() -> tx.executeWithoutResult(s -> inventoryJdbcRepository.applyDeltas(entradas(10))));
+        }
+        runInParallel(calls);
+
+        assertThat(quantity()).isEqualTo(5_000);
+    }
+
+    @Test
+    void upsertCreatesMissingSku() {
+        delta(7);
+        assertThat(quantity()).isEqualTo(7);
+    }
+
+    private void seed(int quantity) {
+        delta(quantity);
+    }
+
+    private void delta(int delta) {
+        tx.executeWithoutResult(s -> inventoryRepository.applyDelta(SKU, delta));
+    }
+
+    private int quantity() {
+        return inventoryRepository.findByProductSku(SKU).orElseThrow().getQuantity();
+    }
+
+    private List<InventoryMovement> entradas(int count) {
+        List<InventoryMovement> movements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InventoryMovement m = new InventoryMovement();
+            m.setProductSku(SKU);
+            m.setQuantity(1);
+            m.setType(InventoryMovement.MovementType.ENTRADA);
+            movements.add(m);
+        }
+        return movements;
+    }
+
+    private void runInParallel(List<Runnable> calls) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            calls.forEach(c -> futures.add(pool.submit(c)));
+            for (Future<?> f : futures) {
+                f.get();   // propaga cualquier error de una llamada
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.AccountBalanceResponse;
+import com.example.msinventory.Dto.TrialBalanceResponse;
+import com.example.msinventory.Entity.AccountingEntry;
+import com.example.msinventory.Repository.AccountDailyBalanceRepository;
+import com.example.msinventory.Repository.AccountingEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El mayor diario que se mantiene asiento a asiento (record) debe coincidir con el que
+// se recalcula desde accounting_entries (rebuild / rebuildAll), contra un MySQL real.
+// Importes múltiplos de 0.25: las sumas en double son exactas y se comparan sin tolerancia.
+// Se omite si no hay Docker disponible.
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AccountLedgerService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class AccountLedgerRebuildTest {
+
+    private static final List<String> ACCOUNTS = List.of("CAJA", "INVENTARIO", "VENTAS", "COSTO_VENTAS", "PROVEEDORES");
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 1);
+    private static final int DAYS = 20;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private AccountLedgerService ledgerService;
+
+    @Autowired
+    private AccountingEntryRepository entryRepository;
+
+    @Autowired
+    private AccountDailyBalanceRepository balanceRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Asientos aleatorios (semilla fija) registrados como en producción: asiento + mayor
+        Random random = new Random(42);
+        for (int i = 0; i < 600; i++) {
+            String debit = ACCOUNTS.get(random.nextInt(ACCOUNTS.size()));
+            String credit = ACCOUNTS.get(random.nextInt(ACCOUNTS.size()));
+            AccountingEntry entry = new AccountingEntry(
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), random.nextInt(60)),
+                    "AJUSTE", debit, credit, (1 + random.nextInt(4000)) * 0.25,
+                    "TEST", (long) i, "asiento " + i
+            );
+            entryRepository.save(entry);
+            ledgerService.record(entry);
+        }
+        entryRepository.flush();
+    }
+
+    @Test
+    void incrementalBalancesMatchAFullRebuild() {
+        LocalDate last = FIRST_DAY.plusDays(DAYS - 1);
+        TrialBalanceResponse incremental = ledgerService.trialBalance(FIRST_DAY, last);
+        List<AccountBalanceResponse> byDay = dailyBalances("CAJA");
+
+        ledgerService.rebuild(FIRST_DAY, last);
+
+        assertThat(ledgerService.trialBalance(FIRST_DAY, last)).isEqualTo(incremental);
+        assertThat(dailyBalances("CAJA")).isEqualTo(byDay);
+        // partida doble: débitos y créditos totales coinciden
+        assertThat(incremental.totalDebits()).isEqualTo(incremental.totalCredits());
+    }
+
+    @Test
+    void rebuildAllFillsAnEmptyLedgerWithTheSameBalances() {
+        LocalDate last = FIRST_DAY.plusDays(DAYS - 1);
+        TrialBalanceResponse incremental = ledgerService.trialBalance(FIRST_DAY, last);
+
+        balanceRepository.deleteAllInBatch();
+        assertThat(ledgerService.trialBalance(FIRST_DAY, last).accounts()).isEmpty();
+
+        ledgerService.rebuildAll();
+
+        assertThat(ledgerService.trialBalance(FIRST_DAY, last)).isEqualTo(incremental);
+    }
+
+    @Test
+    void rebuildingARangeRepairsOnlyThoseDays() {
+        LocalDate damaged = FIRST_DAY.plusDays(5);
+        LocalDate untouched = FIRST_DAY.plusDays(12);
+        AccountBalanceResponse expectedDamaged = ledgerService.balance("VENTAS", damaged, damaged);
+
+        // Buckets desfasados en dos días; solo se recalcula uno
+        balanceRepository.add("VENTAS", damaged, 100.0, 0.0);
+        balanceRepository.add("VENTAS", untouched, 100.0, 0.0);
+        AccountBalanceResponse driftedUntouched = ledgerService.balance("VENTAS", untouched, untouched);
+
+        ledgerService.rebuild(damaged, damaged);
+
+        assertThat(ledgerService.balance("VENTAS", damaged, damaged)).isEqualTo(expectedDamaged);
+        assertThat(ledgerService.balance("VENTAS", untouched, untouched)).isEqualTo(driftedUntouched);
+    }
+
+    private List<AccountBalanceResponse> dailyBalances(String account) {
+        return FIRST_DAY.datesUntil(FIRST_DAY.plusDays(DAYS))
+                .map(day -> ledgerService.balance(account, day, day))
+                .toList();
+    }
+}
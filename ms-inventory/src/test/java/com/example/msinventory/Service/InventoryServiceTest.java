@@ -0,0 +1,188 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.StockBatchResultDto;
+import com.example.msinventory.Dto.StockBatchUpdateRequest;
+import com.example.msinventory.Dto.StockItemResultDto;
+import com.example.msinventory.Dto.StockUpdateRequest;
+import com.example.msinventory.Entity.InventoryMovement;
+import com.example.msinventory.Event.StockChangedEvent;
+import com.example.msinventory.Repository.InventoryJdbcRepository;
+import com.example.msinventory.Repository.InventoryMovementRepository;
+import com.example.msinventory.Repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryServiceTest {
+
+    // Fila de findQuantities (stock resultante tras aplicar)
+    private record Qty(String getProductSku, Integer getQuantity) implements InventoryRepository.SkuQuantityProjection {}
+
+    private InventoryRepository inventoryRepository;
+    private InventoryMovementRepository movementRepository;
+    private InventoryJdbcRepository inventoryJdbcRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private InventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(InventoryRepository.class);
+        movementRepository = mock(InventoryMovementRepository.class);
+        inventoryJdbcRepository = mock(InventoryJdbcRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        when(inventoryRepository.findQuantities(anyCollection())).thenReturn(List.of(
+                new Qty("PRD-000001", 40), new Qty("PRD-000002", 7)));
+
+        service = new InventoryService(inventoryRepository, movementRepository, inventoryJdbcRepository,
+                new RecentMovementKeys(100), mock(ProductCatalogCache.class), mock(StockReadCache.class),
+                eventPublisher);
+    }
+
+    @Test
+    void updateStockAppliesANewMovementAndReportsTheResultingStock() {
+        StockItemResultDto result = service.updateStock(
+                new StockUpdateRequest("PRD-000001", 10, "ENTRADA", "MANUAL-1", "Ajuste"));
+
+        assertThat(result.status()).isEqualTo(StockItemResultDto.Status.APPLIED);
+        assertThat(result.stockAfter()).isEqualTo(40);
+
+        ArgumentCaptor<List<InventoryMovement>> applied = movementsCaptor();
+        verify(inventoryJdbcRepository).applyDeltas(applied.capture());
+        assertThat(applied.getValue())
+                .extracting(InventoryMovement::getIdempotencyKey, InventoryMovement::getQuantity, InventoryMovement::getReason)
+                .containsExactly(tuple("MANUAL-1:PRD-000001", 10, "Ajuste"));
+        verify(eventPublisher).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    void updateStockReportsDuplicateForAKeyAlreadyInTheDatabase() {
+        when(movementRepository.findExistingIdempotencyKeys(anyCollection()))
+                .thenReturn(List.of("MANUAL-1:PRD-000001"));
+
+        StockItemResultDto result = service.updateStock(
+                new StockUpdateRequest("PRD-000001", 10, "SALIDA", "MANUAL-1", null));
+
+        assertThat(result.status()).isEqualTo(StockItemResultDto.Status.DUPLICATE);
+        assertThat(result.stockAfter()).isNull();
+        verify(inventoryJdbcRepository, never()).applyDeltas(any());
+        verify(movementRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void retryOfAnAppliedMovementIsDuplicateWithoutQueryingTheDatabaseAgain() {
+        StockUpdateRequest dto = new StockUpdateRequest("PRD-000001", 5, "SALIDA", "MANUAL-2", null);
+
+        assertThat(service.updateStock(dto).status()).isEqualTo(StockItemResultDto.Status.APPLIED);
+        assertThat(service.updateStock(dto).status()).isEqualTo(StockItemResultDto.Status.DUPLICATE);
+
+        // El segundo lo resuelven las claves recientes en memoria
+        verify(movementRepository, times(1)).findExistingIdempotencyKeys(anyCollection());
+        verify(inventoryJdbcRepository, times(1)).applyDeltas(any());
+    }
+
+    @Test
+    void updateStockWithoutReferenceIsABadRequest() {
+        assertThatThrownBy(() -> service.updateStock(
+                new StockUpdateRequest("PRD-000001", 10, "ENTRADA", " ", null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+
+        verify(inventoryJdbcRepository, never()).applyDeltas(any());
+    }
+
+    @Test
+    void updateStockRejectsAnInvalidMovementType() {
+        StockItemResultDto result = service.updateStock(
+                new StockUpdateRequest("PRD-000001", 10, "TRASPASO", "MANUAL-3", null));
+
+        assertThat(result.status()).isEqualTo(StockItemResultDto.Status.REJECTED);
+        assertThat(result.message()).contains("TRASPASO");
+        verify(inventoryJdbcRepository, never()).applyDeltas(any());
+    }
+
+    @Test
+    void batchReportsAppliedDuplicateAndRejectedPerItem() {
+        when(movementRepository.findExistingIdempotencyKeys(anyCollection()))
+                .thenReturn(List.of("SALE-15:PRD-000003"));
+
+        StockBatchResultDto result = service.updateStockBatch(new StockBatchUpdateRequest("SALE-15", "Venta", List.of(
+                new StockUpdateRequest("PRD-000001", 2, "SALIDA", null, null),   // aplicado
+                new StockUpdateRequest("PRD-000003", 1, "SALIDA", null, null),   // ya aplicado antes
+                new StockUpdateRequest(" ", 1, "SALIDA", null, null),            // sin SKU
+                new StockUpdateRequest("PRD-000002", -4, "SALIDA", null, null),  // cantidad inválida
+                new StockUpdateRequest("PRD-000001", 1, "SALIDA", null, null),   // SKU repetido en la referencia
+                new StockUpdateRequest("PRD-000002", 3, "SALIDA", null, null)    // aplicado
+        )));
+
+        assertThat(result.applied()).isEqualTo(2);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.items())
+                .extracting(StockItemResultDto::productSku, StockItemResultDto::status, StockItemResultDto::stockAfter)
+                .containsExactly(
+                        tuple("PRD-000001", StockItemResultDto.Status.APPLIED, 40),
+                        tuple("PRD-000003", StockItemResultDto.Status.DUPLICATE, null),
+                        tuple(" ", StockItemResultDto.Status.REJECTED, null),
+                        tuple("PRD-000002", StockItemResultDto.Status.REJECTED, null),
+                        tuple("PRD-000001", StockItemResultDto.Status.REJECTED, null),
+                        tuple("PRD-000002", StockItemResultDto.Status.APPLIED, 7)
+                );
+
+        ArgumentCaptor<List<InventoryMovement>> applied = movementsCaptor();
+        verify(inventoryJdbcRepository).applyDeltas(applied.capture());
+        assertThat(applied.getValue())
+                .extracting(InventoryMovement::getIdempotencyKey)
+                .containsExactly("SALE-15:PRD-000001", "SALE-15:PRD-000002");
+    }
+
+    @Test
+    void itemReferenceOverridesTheBatchReferenceInTheKey() {
+        service.updateStockBatch(new StockBatchUpdateRequest("IMPORT-7", "Importación", List.of(
+                new StockUpdateRequest("PRD-000001", 2, "SALIDA", "SALE-99", "Venta 99")
+        )));
+
+        ArgumentCaptor<List<InventoryMovement>> applied = movementsCaptor();
+        verify(inventoryJdbcRepository).applyDeltas(applied.capture());
+        assertThat(applied.getValue())
+                .extracting(InventoryMovement::getIdempotencyKey, InventoryMovement::getReference, InventoryMovement::getReason)
+                .containsExactly(tuple("SALE-99:PRD-000001", "SALE-99", "Venta 99"));
+    }
+
+    @Test
+    void batchWithOnlyDuplicatesAppliesNothing() {
+        when(movementRepository.findExistingIdempotencyKeys(anyCollection()))
+                .thenReturn(List.of("SALE-15:PRD-000001"));
+
+        StockBatchResultDto result = service.updateStockBatch(new StockBatchUpdateRequest("SALE-15", "Venta", List.of(
+                new StockUpdateRequest("PRD-000001", 2, "SALIDA", null, null)
+        )));
+
+        assertThat(result.applied()).isZero();
+        assertThat(result.duplicates()).isEqualTo(1);
+        verify(inventoryJdbcRepository, never()).applyDeltas(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<InventoryMovement>> movementsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.msinventory.Service;
+
+import com.example.msinventory.Dto.ReservationDto;
+import com.example.msinventory.Dto.ReservationRequest;
+import com.example.msinventory.Dto.StockBatchResultDto;
+import com.example.msinventory.Dto.StockBatchUpdateRequest;
+import com.example.msinventory.Dto.StockItemResultDto;
+import com.example.msinventory.Dto.StockUpdateRequest;
+import com.example.msinventory.Entity.Inventory;
+import com.example.msinventory.Repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockReservationServiceTest {
+
+    private InventoryService inventoryService;
+    private StockReservationService service;
+    private Inventory inventory;
+
+    // Claves "referencia:SKU" ya aplicadas, como las guarda InventoryService
+    private final Set<String> appliedKeys = new HashSet<>();
+    private final List<StockBatchUpdateRequest> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        inventory = new Inventory();
+        inventory.setProductSku("PRD-000001");
+        inventory.setQuantity(10);
+        when(inventoryRepository.findByProductSku("PRD-000001")).thenReturn(Optional.of(inventory));
+
+        inventoryService = mock(InventoryService.class);
+        when(inventoryService.updateStockBatch(any())).thenAnswer(inv -> applyIdempotently(inv.getArgument(0)));
+
+        service = new StockReservationService(inventoryRepository, inventoryService, 15);
+    }
+
+    @Test
+    void confirmedReservationUsesTheSaleReferenceAsMovementKey() {
+        ReservationDto r = service.reserve(new ReservationRequest("PRD-000001", 2, "SALE-15"));
+        service.confirm(r.id());
+        service.flushConfirmed();
+
+        assertThat(batches.get(0).items().get(0).reference()).isEqualTo("SALE-15");
+        assertThat(appliedKeys).containsExactly("SALE-15:PRD-000001");
+        assertThat(service.availability("PRD-000001").held()).isZero();
+    }
+
+    @Test
+    void saleAlreadyDeductedByTheVentasOutboxIsNotTakenTwice() {
+        ReservationDto r = service.reserve(new ReservationRequest("PRD-000001", 2, "SALE-15"));
+        appliedKeys.add("SALE-15:PRD-000001");   // SaleService.complete → outbox "SALE-15"
+        service.confirm(r.id());
+
+        service.flushConfirmed();
+
+        assertThat(appliedKeys).hasSize(1);
+        assertThat(service.availability("PRD-000001").held()).isZero();
+    }
+
+    @Test
+    void onlyOneOpenReservationPerSaleAndSku() {
+        ReservationDto first = service.reserve(new ReservationRequest("PRD-000001", 2, "SALE-15"));
+
+        assertThatThrownBy(() -> service.reserve(new ReservationRequest("PRD-000001", 3, "SALE-15")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        // Al liberarla se puede volver a reservar con la cantidad corregida
+        service.release(first.id());
+        ReservationDto second = service.reserve(new ReservationRequest("PRD-000001", 3, "SALE-15"));
+        assertThat(second.available()).isEqualTo(7);
+    }
+
+    @Test
+    void reservationWithoutReferenceIsRejected() {
+        assertThatThrownBy(() -> service.reserve(new ReservationRequest("PRD-000001", 1, " ")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void holdRereadsStockWrittenElsewhere() {
+        service.reserve(new ReservationRequest("PRD-000001", 2, "SALE-1"));
+        inventory.setQuantity(4);   // otra instancia descontó stock
+
+        assertThatThrownBy(() -> service.reserve(new ReservationRequest("PRD-000001", 3, "SALE-2")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(service.availability("PRD-000001").available()).isEqualTo(2);
+    }
+
+    @Test
+    void failedFlushKeepsHoldAndRetries() {
+        ReservationDto r = service.reserve(new ReservationRequest("PRD-000001", 4, "SALE-30"));
+        service.confirm(r.id());
+
+        doThrow(new IllegalStateException("BD caída")).when(inventoryService).updateStockBatch(any());
+        service.flushConfirmed();
+        assertThat(service.availability("PRD-000001").held()).isEqualTo(4);
+
+        doAnswer(inv -> applyIdempotently(inv.getArgument(0))).when(inventoryService).updateStockBatch(any());
+        service.flushConfirmed();
+        assertThat(service.availability("PRD-000001").held()).isZero();
+        assertThat(appliedKeys).containsExactly("SALE-30:PRD-000001");
+    }
+
+    @Test
+    void itemWithoutResultIsRequeued() {
+        ReservationDto r = service.reserve(new ReservationRequest("PRD-000001", 2, "SALE-40"));
+        service.confirm(r.id());
+
+        doReturn(new StockBatchResultDto(null, 0, 0, 0, List.of())).when(inventoryService).updateStockBatch(any());
+        service.flushConfirmed();
+        assertThat(service.availability("PRD-000001").held()).isEqualTo(2);
+
+        doAnswer(inv -> applyIdempotently(inv.getArgument(0))).when(inventoryService).updateStockBatch(any());
+        service.flushConfirmed();
+        assertThat(service.availability("PRD-000001").held()).isZero();
+    }
+
+    private StockBatchResultDto applyIdempotently(StockBatchUpdateRequest batch) {
+        batches.add(batch);
+        List<StockItemResultDto> results = new ArrayList<>();
+        int applied = 0;
+        int duplicates = 0;
+        for (StockUpdateRequest item : batch.items()) {
+            String reference = item.reference() != null ? item.reference() : batch.reference();
+            boolean fresh = appliedKeys.add(reference + ":" + item.productSku());
+            if (fresh) applied++; else duplicates++;
+            results.add(new StockItemResultDto(
+                    item.productSku(), item.type(), item.quantity(), null,
+                    fresh ? StockItemResultDto.Status.APPLIED : StockItemResultDto.Status.DUPLICATE,
+                    null
+            ));
+        }
+        return new StockBatchResultDto(batch.reference(), applied, duplicates, 0, results);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.msventas.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Pool acotado para enviar el outbox de stock a ms-inventario en paralelo
+@Configuration
+public class OutboxRelayConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor outboxRelayExecutor(
+            @Value("${outbox.relay.parallelism:8}") int parallelism,
+            @Value("${outbox.relay.queue-capacity:500}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("outbox-relay-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.msventas.Config;
+
+import com.example.msventas.Service.SaleAnalyticsService;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+// Claves de la caché de estadísticas: (from, to, resto de parámetros).
+// Con el rango a la vista, completar una venta solo invalida las entradas que incluyen su día.
+@Configuration
+public class SalesAnalyticsCacheConfig {
+
+    @Bean
+    public KeyGenerator salesRangeKeyGenerator() {
+        return (target, method, params) -> new SaleAnalyticsService.RangeKey(
+                (LocalDate) params[0],
+                (LocalDate) params[1],
+                List.of(Arrays.copyOfRange(params, 2, params.length))
+        );
+    }
+}
@@ -38,6 +38,15 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.findByDni(dni));
     }
 
+    // 🔍 Autocompletar por prefijo de DNI o nombre
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<CustomerDto>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(customerService.typeahead(q, limit));
+    }
+
     // 🏆 Top compradores
     @GetMapping("/top")
     public ResponseEntity<List<TopCustomerDto>> top(
@@ -45,4 +54,13 @@ public class CustomerController {
     ) {
         return ResponseEntity.ok(customerService.topCustomers(limit));
     }
+
+    // 🔄 Recargar el ranking (recount=true recalcula los contadores desde las ventas)
+    @PostMapping("/top/refresh")
+    public ResponseEntity<Void> refreshTop(
+            @RequestParam(defaultValue = "false") boolean recount
+    ) {
+        customerService.refreshTopCustomers(recount);
+        return ResponseEntity.noContent().build();
+    }
 }
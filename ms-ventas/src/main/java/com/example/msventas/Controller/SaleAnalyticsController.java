@@ -0,0 +1,90 @@
+package com.example.msventas.Controller;
+
+import com.example.msventas.Service.SaleAnalyticsService;
+import com.example.msventas.Service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+// Estadísticas de ventas completadas. from/to son opcionales (días inclusivos).
+@RestController
+@RequestMapping("/sales/analytics")
+@RequiredArgsConstructor
+public class SaleAnalyticsController {
+
+    private final SaleAnalyticsService analyticsService;
+    private final SalesRollupService salesRollupService;
+
+    // GET /sales/analytics/summary?from=2025-01-01&to=2025-01-31
+    @GetMapping("/summary")
+    public ResponseEntity<?> summary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (invalidRange(from, to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        return ResponseEntity.ok(analyticsService.summary(from, to));
+    }
+
+    // GET /sales/analytics/by-period?granularity=MONTH
+    @GetMapping("/by-period")
+    public ResponseEntity<?> byPeriod(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") SaleAnalyticsService.Granularity granularity
+    ) {
+        if (invalidRange(from, to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        return ResponseEntity.ok(analyticsService.byPeriod(from, to, granularity));
+    }
+
+    // GET /sales/analytics/top-products?limit=5&orderBy=UNITS
+    @GetMapping("/top-products")
+    public ResponseEntity<?> topProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "UNITS") SaleAnalyticsService.ProductOrder orderBy,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        if (invalidRange(from, to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        return ResponseEntity.ok(analyticsService.topProducts(from, to, orderBy, limit));
+    }
+
+    // GET /sales/analytics/by-sku  → unidades, ingresos y tickets de cada SKU vendido
+    @GetMapping("/by-sku")
+    public ResponseEntity<?> bySku(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (invalidRange(from, to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        return ResponseEntity.ok(analyticsService.revenueBySku(from, to));
+    }
+
+    // POST /sales/analytics/rollups/rebuild?from=2025-01-01&to=2025-01-31
+    // Recalcula los agregados diarios de esos días (backfill o corrección)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        try {
+            salesRollupService.rebuild(from, to);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private boolean invalidRange(LocalDate from, LocalDate to) {
+        return from != null && to != null && from.isAfter(to);
+    }
+}
@@ -3,11 +3,18 @@ package com.example.msventas.Controller;
 import com.example.msventas.Dto.CreateSaleDto;
 import com.example.msventas.Dto.CreateSaleItemDto;
 import com.example.msventas.Dto.SaleDto;
+import com.example.msventas.Dto.SaleImportResultDto;
+import com.example.msventas.Entity.SaleItem;
+import com.example.msventas.Service.SaleImportService;
 import com.example.msventas.Service.SaleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,6 +22,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SaleController {
     private final SaleService saleService;
+    private final SaleImportService saleImportService;
 
     @PostMapping
     public ResponseEntity<SaleDto> create(@RequestBody CreateSaleDto dto) {
@@ -35,6 +43,25 @@ public class SaleController {
         return ResponseEntity.ok(saleService.complete(id));
     }
 
+    // 📥 Importación masiva de ventas de un POS offline (se lee en streaming)
+    //    POST /sales/import?batchId=TDA01-20250115   Content-Type: application/x-ndjson
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<SaleImportResultDto> importNdjson(
+            @RequestParam String batchId,
+            InputStream body
+    ) throws IOException {
+        return ResponseEntity.ok(saleImportService.importNdjson(batchId, body));
+    }
+
+    //    POST /sales/import?batchId=TDA01-20250115   Content-Type: text/csv
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<SaleImportResultDto> importCsv(
+            @RequestParam String batchId,
+            InputStream body
+    ) throws IOException {
+        return ResponseEntity.ok(saleImportService.importCsv(batchId, body));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SaleDto> getById(@PathVariable Long id) {
         return ResponseEntity.ok(saleService.findById(id));
@@ -44,4 +71,25 @@ public class SaleController {
     public ResponseEntity<List<SaleDto>> getAll() {
         return ResponseEntity.ok(saleService.findAll());
     }
+
+    // 👉 Listado paginado por keyset:
+    //    GET /sales?size=50&cursor=1234&status=COMPLETED&from=2025-01-01&to=2025-01-31&summary=true
+    //    summary=true devuelve SaleSummaryDto (sin ítems). Para la siguiente página se envía nextCursor.
+    @GetMapping(params = "size")
+    public ResponseEntity<?> getPage(
+            @RequestParam int size,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) SaleItem.SaleStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean summary
+    ) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        if (summary) {
+            return ResponseEntity.ok(saleService.findSummaryPage(size, cursor, status, from, to));
+        }
+        return ResponseEntity.ok(saleService.findPage(size, cursor, status, from, to));
+    }
 }
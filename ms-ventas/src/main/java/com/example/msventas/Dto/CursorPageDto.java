@@ -0,0 +1,8 @@
+package com.example.msventas.Dto;
+
+import java.util.List;
+
+public record CursorPageDto<T>(
+        List<T> items,
+        Long nextCursor   // null cuando no hay más páginas
+) {}
@@ -0,0 +1,13 @@
+package com.example.msventas.Dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Una venta ya cobrada en un POS offline (una línea del NDJSON de importación).
+// Se identifica al cliente por customerId o por customerDni.
+public record ImportSaleDto(
+        Long customerId,
+        String customerDni,
+        LocalDateTime completedAt,
+        List<CreateSaleItemDto> items
+) {}
@@ -0,0 +1,8 @@
+package com.example.msventas.Dto;
+
+public record ProductSalesDto(
+        String productSku,
+        Long units,
+        Double revenue,
+        Long tickets
+) {}
@@ -0,0 +1,8 @@
+package com.example.msventas.Dto;
+
+public record SaleImportResultDto(
+        String reference,
+        int sales,
+        int items,
+        int skus        // movimientos de stock enviados a inventario (uno por SKU)
+) {}
@@ -0,0 +1,18 @@
+package com.example.msventas.Dto;
+
+import com.example.msventas.Entity.SaleItem;
+
+import java.time.LocalDateTime;
+
+// Vista liviana de una venta (sin ítems) para listados
+public record SaleSummaryDto(
+        Long id,
+        Long customerId,
+        String customerName,
+        String customerDni,
+        SaleItem.SaleStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        Long itemCount,
+        Double total
+) {}
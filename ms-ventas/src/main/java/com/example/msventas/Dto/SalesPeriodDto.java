@@ -0,0 +1,8 @@
+package com.example.msventas.Dto;
+
+public record SalesPeriodDto(
+        String period,   // "2025-01-15" (DAY) o "2025-01" (MONTH)
+        Long tickets,
+        Long units,
+        Double revenue
+) {}
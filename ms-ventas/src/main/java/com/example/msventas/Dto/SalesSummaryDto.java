@@ -0,0 +1,11 @@
+package com.example.msventas.Dto;
+
+import java.time.LocalDate;
+
+public record SalesSummaryDto(
+        LocalDate from,
+        LocalDate to,
+        Long tickets,
+        Long units,      // unidades base (cantidad x unidades por paquete)
+        Double revenue
+) {}
@@ -0,0 +1,11 @@
+package com.example.msventas.Dto;
+
+import java.util.List;
+
+public record StockBatchResultDto(
+        String reference,
+        int applied,
+        int duplicates,
+        int rejected,
+        List<StockItemResultDto> items
+) {}
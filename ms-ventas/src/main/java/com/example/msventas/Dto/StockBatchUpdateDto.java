@@ -0,0 +1,9 @@
+package com.example.msventas.Dto;
+
+import java.util.List;
+
+public record StockBatchUpdateDto(
+        String reference,
+        String reason,
+        List<StockUpdateDto> items
+) {}
@@ -0,0 +1,15 @@
+package com.example.msventas.Dto;
+
+// Resultado por ítem que devuelve ms-inventario en /inventory/update-batch
+public record StockItemResultDto(
+        String productSku,
+        String type,
+        Integer quantity,
+        Integer stockAfter,
+        Status status,
+        String message
+) {
+    public enum Status {
+        APPLIED, DUPLICATE, REJECTED
+    }
+}
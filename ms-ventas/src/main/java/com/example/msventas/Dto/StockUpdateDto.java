@@ -1,5 +1,9 @@
 package com.example.msventas.Dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// reference/reason en null: inventario usa los del lote (no se repiten por ítem en el outbox)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record StockUpdateDto(
     String productSku,
     Integer quantity,
@@ -10,4 +14,4 @@ public record StockUpdateDto(
     public enum MovementType {
         ENTRADA, SALIDA
     }
-}
\ No newline at end of file
+}
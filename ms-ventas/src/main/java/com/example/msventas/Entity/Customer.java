@@ -5,7 +5,10 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "customers")
+@Table(
+        name = "customers",
+        indexes = @Index(name = "idx_customers_completed_sales", columnList = "completed_sales")
+)
 public class Customer {
 
     @Id
@@ -22,4 +25,8 @@ public class Customer {
     @Column(length = 50)
     private String phone;
 
+    // Ventas COMPLETADAS del cliente; se incrementa al completar cada venta (ranking de compradores)
+    @Column(name = "completed_sales", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long completedSales = 0L;
+
 }
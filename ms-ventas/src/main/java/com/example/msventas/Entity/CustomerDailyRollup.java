@@ -0,0 +1,36 @@
+package com.example.msventas.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Ventas COMPLETADAS agregadas por día y cliente (tickets, unidades e ingresos).
+// Sirve para el resumen, las series por periodo y el ranking de clientes.
+@Data
+@Entity
+@Table(
+        name = "customer_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_customer_daily_rollup_day_customer", columnNames = {"sale_day", "customer_id"}),
+        indexes = @Index(name = "idx_customer_daily_rollup_customer", columnList = "customer_id")
+)
+public class CustomerDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Long tickets = 0L;
+
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Column(nullable = false)
+    private Double revenue = 0.0;
+}
@@ -0,0 +1,26 @@
+package com.example.msventas.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Lotes de importación POS ya procesados. La PK (batchId) impide importar dos veces
+// el mismo lote, incluso si no generó movimientos de stock.
+@Data
+@Entity
+@Table(name = "sale_import_batches")
+public class SaleImportBatch {
+    @Id
+    @Column(name = "batch_id", length = 40)
+    private String batchId;
+
+    @Column(nullable = false)
+    private Integer sales = 0;
+
+    @Column(nullable = false)
+    private Integer items = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime importedAt = LocalDateTime.now();
+}
@@ -0,0 +1,37 @@
+package com.example.msventas.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Ventas COMPLETADAS agregadas por día y SKU.
+// Se actualiza en la misma transacción que completa la venta (upsert incremental).
+@Data
+@Entity
+@Table(
+        name = "sales_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_rollup_day_sku", columnNames = {"sale_day", "product_sku"})
+)
+public class SalesDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Column(name = "product_sku", nullable = false)
+    private String productSku;
+
+    // unidades base (cantidad * unitsPerPackage)
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Column(nullable = false)
+    private Double revenue = 0.0;
+
+    // tickets que incluyen este SKU ese día
+    @Column(nullable = false)
+    private Long tickets = 0L;
+}
@@ -0,0 +1,56 @@
+package com.example.msventas.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Movimientos de stock pendientes de enviar a ms-inventario.
+// Se escriben en la misma transacción que completa la venta.
+@Data
+@Entity
+@Table(
+        name = "stock_outbox",
+        indexes = @Index(name = "idx_stock_outbox_status_next", columnList = "status, next_attempt_at")
+)
+public class StockOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Clave de idempotencia hacia inventario, ej: "SALE-15"
+    @Column(nullable = false, unique = true, length = 60)
+    private String reference;
+
+    // StockBatchUpdateDto serializado en JSON (TEXT de MySQL se queda en 64 KB)
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // PENDING: próximo intento; SENDING: plazo del reclamo (si vence, otra instancia la retoma)
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    // Quién tiene la fila en SENDING; el resultado solo se guarda si el token sigue siendo el mismo
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime sentAt;
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+}
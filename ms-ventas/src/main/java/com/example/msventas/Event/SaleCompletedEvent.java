@@ -0,0 +1,10 @@
+package com.example.msventas.Event;
+
+import java.time.LocalDateTime;
+
+// Se publica dentro de la transacción de SaleService.complete; los listeners lo reciben tras el commit.
+public record SaleCompletedEvent(
+        Long saleId,
+        Long customerId,
+        LocalDateTime completedAt
+) {}
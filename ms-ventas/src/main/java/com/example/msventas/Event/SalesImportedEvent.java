@@ -0,0 +1,7 @@
+package com.example.msventas.Event;
+
+// Se publica al terminar una importación masiva; los listeners lo reciben tras el commit.
+public record SalesImportedEvent(
+        String reference,
+        int sales
+) {}
@@ -0,0 +1,9 @@
+package com.example.msventas.Event;
+
+import java.time.LocalDate;
+
+// Se publica al recalcular los agregados diarios de [from, to]; los listeners lo reciben tras el commit.
+public record SalesRollupRebuiltEvent(
+        LocalDate from,
+        LocalDate to
+) {}
@@ -0,0 +1,7 @@
+package com.example.msventas.Event;
+
+// Se publica al registrar un movimiento en el outbox; tras el commit se envía de inmediato.
+public record StockOutboxEnqueuedEvent(
+        Long outboxId,
+        String reference
+) {}
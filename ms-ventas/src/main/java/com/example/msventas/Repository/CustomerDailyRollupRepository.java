@@ -0,0 +1,113 @@
+package com.example.msventas.Repository;
+
+import com.example.msventas.Entity.CustomerDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CustomerDailyRollupRepository extends JpaRepository<CustomerDailyRollup, Long> {
+
+    interface TotalsProjection {
+        Long getTickets();
+        Long getUnits();
+        Double getRevenue();
+    }
+
+    interface DayProjection {
+        LocalDate getSaleDay();
+        Long getTickets();
+        Long getUnits();
+        Double getRevenue();
+    }
+
+    interface MonthProjection {
+        Integer getPeriodYear();
+        Integer getPeriodMonth();
+        Long getTickets();
+        Long getUnits();
+        Double getRevenue();
+    }
+
+    // 👉 Suma atómica en la fila (día, cliente); si no existe se crea.
+    @Modifying
+    @Query(value = """
+           insert into customer_daily_rollup (sale_day, customer_id, tickets, units, revenue)
+           values (:day, :customerId, :tickets, :units, :revenue)
+           on duplicate key update tickets = tickets + :tickets,
+                                   units = units + :units,
+                                   revenue = revenue + :revenue
+           """, nativeQuery = true)
+    int add(
+            @Param("day") LocalDate day,
+            @Param("customerId") Long customerId,
+            @Param("tickets") long tickets,
+            @Param("units") long units,
+            @Param("revenue") double revenue
+    );
+
+    @Modifying
+    @Query("delete from CustomerDailyRollup r where r.saleDay >= :from and r.saleDay < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula desde sales/sale_items los días [from, to)
+    @Modifying
+    @Query(value = """
+           insert into customer_daily_rollup (sale_day, customer_id, tickets, units, revenue)
+           select t.sale_day, t.customer_id, count(*), sum(t.units), sum(t.revenue)
+           from (select date(s.completed_at) as sale_day,
+                        s.customer_id as customer_id,
+                        coalesce(sum(i.quantity * coalesce(i.units_per_package, 1)), 0) as units,
+                        coalesce(sum(i.quantity * coalesce(i.unit_price, 0)), 0) as revenue
+                 from sales s
+                 left join sale_items i on i.sale_id = s.id
+                 where s.status = 'COMPLETED'
+                   and s.customer_id is not null
+                   and s.completed_at >= :from
+                   and s.completed_at < :to
+                 group by s.id, date(s.completed_at), s.customer_id) t
+           group by t.sale_day, t.customer_id
+           """, nativeQuery = true)
+    int rebuildRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+           select coalesce(sum(r.tickets), 0) as tickets,
+                  coalesce(sum(r.units), 0) as units,
+                  coalesce(sum(r.revenue), 0.0) as revenue
+           from CustomerDailyRollup r
+           where (:from is null or r.saleDay >= :from)
+             and (:to is null or r.saleDay <= :to)
+           """)
+    TotalsProjection sumTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+           select r.saleDay as saleDay,
+                  sum(r.tickets) as tickets,
+                  sum(r.units) as units,
+                  sum(r.revenue) as revenue
+           from CustomerDailyRollup r
+           where (:from is null or r.saleDay >= :from)
+             and (:to is null or r.saleDay <= :to)
+           group by r.saleDay
+           order by r.saleDay
+           """)
+    List<DayProjection> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+           select extract(year from r.saleDay) as periodYear,
+                  extract(month from r.saleDay) as periodMonth,
+                  sum(r.tickets) as tickets,
+                  sum(r.units) as units,
+                  sum(r.revenue) as revenue
+           from CustomerDailyRollup r
+           where (:from is null or r.saleDay >= :from)
+             and (:to is null or r.saleDay <= :to)
+           group by extract(year from r.saleDay), extract(month from r.saleDay)
+           order by extract(year from r.saleDay), extract(month from r.saleDay)
+           """)
+    List<MonthProjection> sumByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
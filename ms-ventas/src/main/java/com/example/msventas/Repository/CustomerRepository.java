@@ -3,7 +3,9 @@ package com.example.msventas.Repository;
 import com.example.msventas.Entity.Customer;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,16 +21,39 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
         Long getTotalSales();
     }
 
+    // Usa el contador customers.completed_sales (indexado) en vez de recorrer todas las ventas
     @Query("""
            SELECT c.id as customerId,
                   c.dni as dni,
                   c.name as name,
-                  COUNT(s.id) as totalSales
+                  c.completedSales as totalSales
            FROM Customer c
-           JOIN Sale s ON s.customer = c
-           WHERE s.status = 'COMPLETED'
-           GROUP BY c.id, c.dni, c.name
-           ORDER BY COUNT(s.id) DESC
+           WHERE c.completedSales > 0
+           ORDER BY c.completedSales DESC, c.id ASC
            """)
     List<TopCustomerProjection> findTopCustomers(Pageable pageable);
+
+    @Query("""
+           SELECT c.id as customerId,
+                  c.dni as dni,
+                  c.name as name,
+                  c.completedSales as totalSales
+           FROM Customer c
+           WHERE c.id = :id
+           """)
+    Optional<TopCustomerProjection> findRankingEntry(@Param("id") Long id);
+
+    // 👉 Suma atómica (sin leer-modificar-escribir en Java)
+    @Modifying
+    @Query("UPDATE Customer c SET c.completedSales = c.completedSales + :count WHERE c.id = :id")
+    int addCompletedSales(@Param("id") Long id, @Param("count") long count);
+
+    // Recalcula todos los contadores desde la tabla de ventas (corrección manual)
+    @Modifying
+    @Query(value = """
+           UPDATE customers c
+           SET c.completed_sales = (SELECT COUNT(*) FROM sales s
+                                    WHERE s.customer_id = c.id AND s.status = 'COMPLETED')
+           """, nativeQuery = true)
+    int recountCompletedSales();
 }
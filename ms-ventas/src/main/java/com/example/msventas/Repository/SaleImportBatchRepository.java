@@ -0,0 +1,24 @@
+package com.example.msventas.Repository;
+
+import com.example.msventas.Entity.SaleImportBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SaleImportBatchRepository extends JpaRepository<SaleImportBatch, String> {
+
+    // INSERT directo (save() haría merge sobre una fila existente): si el lote ya existe, falla por la PK
+    @Modifying
+    @Query(value = """
+           insert into sale_import_batches (batch_id, sales, items, imported_at)
+           values (:batchId, 0, 0, :now)
+           """, nativeQuery = true)
+    int register(@Param("batchId") String batchId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update SaleImportBatch b set b.sales = :sales, b.items = :items where b.batchId = :batchId")
+    int recordTotals(@Param("batchId") String batchId, @Param("sales") int sales, @Param("items") int items);
+}
@@ -1,7 +1,84 @@
 package com.example.msventas.Repository;
 
+import com.example.msventas.Dto.SaleSummaryDto;
 import com.example.msventas.Entity.Sale;
+import com.example.msventas.Entity.SaleItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface SaleRepository extends JpaRepository<Sale, Long> {
+
+    // Transición condicional: devuelve 1 solo para quien la aplica primero.
+    // clearAutomatically para que el findById posterior lea el estado ya actualizado.
+    @Modifying(clearAutomatically = true)
+    @Query("""
+           update Sale s
+           set s.status = :completed, s.completedAt = :now
+           where s.id = :id and s.status = :pending
+           """)
+    int markCompleted(
+            @Param("id") Long id,
+            @Param("now") LocalDateTime now,
+            @Param("pending") SaleItem.SaleStatus pending,
+            @Param("completed") SaleItem.SaleStatus completed
+    );
+
+    // Listado completo con cliente e ítems en una sola consulta (sin N+1)
+    @EntityGraph(attributePaths = {"customer", "items"})
+    @Query("select distinct s from Sale s order by s.id desc")
+    List<Sale> findAllWithItems();
+
+    // 👉 Keyset: ids de la página (id descendente, después del cursor)
+    @Query("""
+           select s.id
+           from Sale s
+           where (:status is null or s.status = :status)
+             and (:from is null or s.createdAt >= :from)
+             and (:to is null or s.createdAt < :to)
+             and (:cursor is null or s.id < :cursor)
+           order by s.id desc
+           """)
+    List<Long> findPageIds(
+            @Param("status") SaleItem.SaleStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursor") Long cursor,
+            Pageable pageable
+    );
+
+    // Se cargan aparte para no paginar en memoria un fetch de colección
+    @EntityGraph(attributePaths = {"customer", "items"})
+    @Query("select distinct s from Sale s where s.id in :ids order by s.id desc")
+    List<Sale> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 👉 Keyset en modo resumen: totales calculados en la BD, sin cargar ítems
+    @Query("""
+           select new com.example.msventas.Dto.SaleSummaryDto(
+                  s.id, c.id, s.customerName, c.dni, s.status, s.createdAt, s.completedAt,
+                  count(i.id), coalesce(sum(i.quantity * i.unitPrice), 0.0))
+           from Sale s
+           left join s.customer c
+           left join s.items i
+           where (:status is null or s.status = :status)
+             and (:from is null or s.createdAt >= :from)
+             and (:to is null or s.createdAt < :to)
+             and (:cursor is null or s.id < :cursor)
+           group by s.id, c.id, s.customerName, c.dni, s.status, s.createdAt, s.completedAt
+           order by s.id desc
+           """)
+    List<SaleSummaryDto> findSummaryPage(
+            @Param("status") SaleItem.SaleStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursor") Long cursor,
+            Pageable pageable
+    );
 }
@@ -0,0 +1,95 @@
+package com.example.msventas.Repository;
+
+import com.example.msventas.Entity.SalesDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, Long> {
+
+    interface SkuProjection {
+        String getProductSku();
+        Long getUnits();
+        Double getRevenue();
+        Long getTickets();
+    }
+
+    // 👉 Suma atómica en la fila (día, SKU); si no existe se crea.
+    @Modifying
+    @Query(value = """
+           insert into sales_daily_rollup (sale_day, product_sku, units, revenue, tickets)
+           values (:day, :sku, :units, :revenue, :tickets)
+           on duplicate key update units = units + :units,
+                                   revenue = revenue + :revenue,
+                                   tickets = tickets + :tickets
+           """, nativeQuery = true)
+    int add(
+            @Param("day") LocalDate day,
+            @Param("sku") String sku,
+            @Param("units") long units,
+            @Param("revenue") double revenue,
+            @Param("tickets") long tickets
+    );
+
+    @Modifying
+    @Query("delete from SalesDailyRollup r where r.saleDay >= :from and r.saleDay < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula desde sales/sale_items los días [from, to)
+    @Modifying
+    @Query(value = """
+           insert into sales_daily_rollup (sale_day, product_sku, units, revenue, tickets)
+           select date(s.completed_at),
+                  i.product_sku,
+                  sum(i.quantity * coalesce(i.units_per_package, 1)),
+                  sum(i.quantity * coalesce(i.unit_price, 0)),
+                  count(distinct s.id)
+           from sale_items i
+           join sales s on s.id = i.sale_id
+           where s.status = 'COMPLETED'
+             and s.completed_at >= :from
+             and s.completed_at < :to
+           group by date(s.completed_at), i.product_sku
+           """, nativeQuery = true)
+    int rebuildRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+           select r.productSku as productSku,
+                  sum(r.units) as units,
+                  sum(r.revenue) as revenue,
+                  sum(r.tickets) as tickets
+           from SalesDailyRollup r
+           where (:from is null or r.saleDay >= :from)
+             and (:to is null or r.saleDay <= :to)
+           group by r.productSku
+           order by sum(r.units) desc
+           """)
+    List<SkuProjection> sumBySkuOrderByUnits(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable
+    );
+
+    @Query("""
+           select r.productSku as productSku,
+                  sum(r.units) as units,
+                  sum(r.revenue) as revenue,
+                  sum(r.tickets) as tickets
+           from SalesDailyRollup r
+           where (:from is null or r.saleDay >= :from)
+             and (:to is null or r.saleDay <= :to)
+           group by r.productSku
+           order by sum(r.revenue) desc
+           """)
+    List<SkuProjection> sumBySkuOrderByRevenue(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable
+    );
+}
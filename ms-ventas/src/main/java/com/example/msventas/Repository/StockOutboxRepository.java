@@ -0,0 +1,67 @@
+package com.example.msventas.Repository;
+
+import com.example.msventas.Entity.StockOutboxEvent;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// claim/finish se llaman desde el pool del relay, fuera de cualquier transacción:
+// cada uno es un UPDATE condicional en su propia transacción corta.
+public interface StockOutboxRepository extends JpaRepository<StockOutboxEvent, Long> {
+
+    List<StockOutboxEvent> findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            Collection<StockOutboxEvent.Status> statuses,
+            LocalDateTime now,
+            Pageable pageable
+    );
+
+    // 👉 Reclamo atómico: de varias instancias (o del relay y el envío inmediato) solo una
+    //    ve 1 fila afectada. Una fila SENDING con el plazo vencido se puede volver a reclamar.
+    @Transactional
+    @Modifying
+    @Query("""
+           update StockOutboxEvent e
+           set e.status = :sending, e.claimToken = :token, e.nextAttemptAt = :leaseUntil
+           where e.id = :id
+             and e.status in (:pending, :sending)
+             and e.nextAttemptAt <= :now
+           """)
+    int claim(
+            @Param("id") Long id,
+            @Param("token") String token,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("pending") StockOutboxEvent.Status pending,
+            @Param("sending") StockOutboxEvent.Status sending
+    );
+
+    // Guarda el resultado solo si la fila sigue reclamada con este token
+    @Transactional
+    @Modifying
+    @Query("""
+           update StockOutboxEvent e
+           set e.status = :status,
+               e.attempts = :attempts,
+               e.lastError = :lastError,
+               e.nextAttemptAt = :nextAttemptAt,
+               e.sentAt = :sentAt,
+               e.claimToken = null
+           where e.id = :id and e.claimToken = :token
+           """)
+    int finish(
+            @Param("id") Long id,
+            @Param("token") String token,
+            @Param("status") StockOutboxEvent.Status status,
+            @Param("attempts") int attempts,
+            @Param("lastError") String lastError,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("sentAt") LocalDateTime sentAt
+    );
+}
@@ -0,0 +1,73 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.CustomerDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Near-cache de clientes para el punto de venta (búsqueda por DNI en cada ticket).
+// - byDni / byId: clientes encontrados (acotado por tamaño y TTL)
+// - missingDni: DNI consultados que no existen (TTL corto, para no golpear la BD)
+// Métricas en /actuator/metrics/cache.gets?tag=cache:customers.byDni (hit/miss)
+@Component
+public class CustomerCache {
+
+    private final Cache<String, CustomerDto> byDni;
+    private final Cache<Long, CustomerDto> byId;
+    private final Cache<String, Boolean> missingDni;
+
+    public CustomerCache(
+            MeterRegistry meterRegistry,
+            @Value("${customers.cache.max-size:10000}") long maxSize,
+            @Value("${customers.cache.ttl-minutes:30}") long ttlMinutes,
+            @Value("${customers.cache.negative-ttl-seconds:30}") long negativeTtlSeconds
+    ) {
+        this.byDni = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.missingDni = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byDni, "customers.byDni");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "customers.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingDni, "customers.missingDni");
+    }
+
+    public CustomerDto getByDni(String dni) {
+        return byDni.getIfPresent(dni);
+    }
+
+    public CustomerDto getById(Long id) {
+        return byId.getIfPresent(id);
+    }
+
+    public boolean isKnownMissing(String dni) {
+        return missingDni.getIfPresent(dni) != null;
+    }
+
+    // 👉 Write-through: se guarda por DNI y por id, y deja de contar como inexistente
+    public void put(CustomerDto dto) {
+        byDni.put(dto.dni(), dto);
+        byId.put(dto.id(), dto);
+        missingDni.invalidate(dto.dni());
+    }
+
+    public void markMissing(String dni) {
+        missingDni.put(dni, Boolean.TRUE);
+    }
+}
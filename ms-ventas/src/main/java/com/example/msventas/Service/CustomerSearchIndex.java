@@ -0,0 +1,29 @@
+package com.example.msventas.Service;
+
+import com.example.commons.search.PrefixIndex;
+import com.example.msventas.Dto.CustomerDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Autocompletar clientes por prefijo de DNI o de nombre (índice en memoria de ms-commons).
+// CustomerService lo carga al arrancar y lo recarga cada customers.search.reload-ms, así
+// aparecen los clientes dados de alta en otras instancias; las altas locales entran al momento.
+@Component
+public class CustomerSearchIndex {
+
+    private final PrefixIndex<CustomerDto> index =
+            new PrefixIndex<>(CustomerDto::id, CustomerDto::dni, CustomerDto::name);
+
+    public void load(List<CustomerDto> customers) {
+        index.load(customers);
+    }
+
+    public void put(CustomerDto dto) {
+        index.put(dto);
+    }
+
+    public List<CustomerDto> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+}
@@ -5,9 +5,15 @@ import com.example.msventas.Dto.CustomerDto;
 import com.example.msventas.Dto.TopCustomerDto;
 import com.example.msventas.Entity.Customer;
 import com.example.msventas.Repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -17,7 +23,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CustomerService {
 
+    private static final int MAX_TYPEAHEAD = 50;
+
     private final CustomerRepository customerRepository;
+    private final TopCustomerRanking topCustomerRanking;
+    private final CustomerCache customerCache;
+    private final CustomerSearchIndex searchIndex;
+    private final MeterRegistry meterRegistry;
 
     public CustomerDto create(CreateCustomerDto dto) {
         if (dto.dni() == null || dto.dni().isBlank()) {
@@ -27,29 +39,77 @@ public class CustomerService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nombre es obligatorio");
         }
 
-        customerRepository.findByDni(dto.dni()).ifPresent(c -> {
+        // Sin consulta previa: si el DNI está en caché ya sabemos que existe;
+        // si no, el índice único de customers.dni detecta el duplicado
+        if (customerCache.getByDni(dto.dni()) != null) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe un cliente con ese DNI");
-        });
+        }
 
         Customer c = new Customer();
         c.setDni(dto.dni());
         c.setName(dto.name());
         c.setPhone(dto.phone());
 
+        Customer saved;
+        try {
+            saved = customerRepository.saveAndFlush(c);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe un cliente con ese DNI");
+        }
+
+        // create no es transaccional: saveAndFlush ya confirmó el alta
+        CustomerDto created = toDto(saved);
+        customerCache.put(created);
+        searchIndex.put(created);
+        return created;
+    }
+
+    // Carga del índice de autocompletado al arrancar y cada cierto tiempo (altas de otras instancias)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${customers.search.reload-ms:60000}", initialDelayString = "${customers.search.reload-ms:60000}")
+    public void loadSearchIndex() {
+        searchIndex.load(findAll());
+    }
 
-        return toDto(customerRepository.save(c));
+    // 🔍 Autocompletar por prefijo de DNI o nombre (en memoria)
+    public List<CustomerDto> typeahead(String q, int limit) {
+        return searchIndex.search(q, Math.max(1, Math.min(limit, MAX_TYPEAHEAD)));
     }
 
     public CustomerDto findById(Long id) {
-        Customer c = customerRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado"));
-        return toDto(c);
+        return meterRegistry.timer("customers.lookup", "by", "id").record(() -> {
+            CustomerDto cached = customerCache.getById(id);
+            if (cached != null) {
+                return cached;
+            }
+            Customer c = customerRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado"));
+            CustomerDto dto = toDto(c);
+            customerCache.put(dto);
+            return dto;
+        });
     }
 
+    // 🔍 Se usa en cada ticket: primero la near-cache, luego la caché negativa y al final la BD
     public CustomerDto findByDni(String dni) {
-        Customer c = customerRepository.findByDni(dni)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado"));
-        return toDto(c);
+        return meterRegistry.timer("customers.lookup", "by", "dni").record(() -> {
+            CustomerDto cached = customerCache.getByDni(dni);
+            if (cached != null) {
+                return cached;
+            }
+            if (customerCache.isKnownMissing(dni)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado");
+            }
+
+            Customer c = customerRepository.findByDni(dni).orElse(null);
+            if (c == null) {
+                customerCache.markMissing(dni);
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente no encontrado");
+            }
+            CustomerDto dto = toDto(c);
+            customerCache.put(dto);
+            return dto;
+        });
     }
 
     public List<CustomerDto> findAll() {
@@ -59,7 +119,17 @@ public class CustomerService {
                 .toList();
     }
 
+    // Se responde desde el ranking en memoria; solo si se piden más posiciones de las
+    // que guarda se consulta la BD (por el contador indexado, sin recorrer ventas)
     public List<TopCustomerDto> topCustomers(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit debe ser mayor que 0");
+        }
+        List<TopCustomerDto> cached = topCustomerRanking.top(limit);
+        if (cached != null) {
+            return cached;
+        }
+
         var pageable = PageRequest.of(0, limit);
         return customerRepository.findTopCustomers(pageable)
                 .stream()
@@ -72,6 +142,15 @@ public class CustomerService {
                 .toList();
     }
 
+    // Recarga el ranking; con recount=true primero recalcula los contadores desde las ventas
+    @Transactional
+    public void refreshTopCustomers(boolean recount) {
+        if (recount) {
+            customerRepository.recountCompletedSales();
+        }
+        topCustomerRanking.refresh();
+    }
+
     private CustomerDto toDto(Customer c) {
         return new CustomerDto(
                 c.getId(),
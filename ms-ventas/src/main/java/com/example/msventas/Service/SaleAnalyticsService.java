@@ -0,0 +1,134 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.ProductSalesDto;
+import com.example.msventas.Dto.SalesPeriodDto;
+import com.example.msventas.Dto.SalesSummaryDto;
+import com.example.msventas.Event.SaleCompletedEvent;
+import com.example.msventas.Event.SalesImportedEvent;
+import com.example.msventas.Event.SalesRollupRebuiltEvent;
+import com.example.msventas.Repository.CustomerDailyRollupRepository;
+import com.example.msventas.Repository.SalesDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Estadísticas de ventas para el dashboard, leídas de los agregados diarios y cacheadas.
+// Al completar una venta o recalcular días solo se invalidan los rangos que los incluyen:
+// los rangos históricos (meses cerrados) siguen en caché. La importación masiva borra todo.
+@Service
+@RequiredArgsConstructor
+@CacheConfig(keyGenerator = "salesRangeKeyGenerator")
+public class SaleAnalyticsService {
+
+    public static final String CACHE_SUMMARY = "salesSummary";
+    public static final String CACHE_PERIODS = "salesByPeriod";
+    public static final String CACHE_TOP_PRODUCTS = "salesTopProducts";
+    public static final String CACHE_BY_SKU = "salesBySku";
+
+    private static final int MAX_LIMIT = 100;
+    private static final List<String> CACHES = List.of(CACHE_SUMMARY, CACHE_PERIODS, CACHE_TOP_PRODUCTS, CACHE_BY_SKU);
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final CustomerDailyRollupRepository customerDailyRollupRepository;
+    private final CacheManager cacheManager;
+
+    // Clave de caché (ver SalesAnalyticsCacheConfig); from/to null = sin límite
+    public record RangeKey(LocalDate from, LocalDate to, List<Object> params) {
+        boolean overlaps(LocalDate dayFrom, LocalDate dayTo) {
+            return (from == null || !from.isAfter(dayTo)) && (to == null || !to.isBefore(dayFrom));
+        }
+    }
+
+    public enum Granularity {
+        DAY, MONTH
+    }
+
+    public enum ProductOrder {
+        UNITS, REVENUE
+    }
+
+    @Cacheable(CACHE_SUMMARY)
+    public SalesSummaryDto summary(LocalDate from, LocalDate to) {
+        var t = customerDailyRollupRepository.sumTotals(from, to);
+        return new SalesSummaryDto(from, to, t.getTickets(), t.getUnits(), t.getRevenue());
+    }
+
+    @Cacheable(CACHE_PERIODS)
+    public List<SalesPeriodDto> byPeriod(LocalDate from, LocalDate to, Granularity granularity) {
+        if (granularity == Granularity.MONTH) {
+            return customerDailyRollupRepository.sumByMonth(from, to)
+                    .stream()
+                    .map(p -> new SalesPeriodDto(
+                            String.format("%04d-%02d", p.getPeriodYear(), p.getPeriodMonth()),
+                            p.getTickets(),
+                            p.getUnits(),
+                            p.getRevenue()
+                    ))
+                    .toList();
+        }
+        return customerDailyRollupRepository.sumByDay(from, to)
+                .stream()
+                .map(p -> new SalesPeriodDto(p.getSaleDay().toString(), p.getTickets(), p.getUnits(), p.getRevenue()))
+                .toList();
+    }
+
+    @Cacheable(CACHE_TOP_PRODUCTS)
+    public List<ProductSalesDto> topProducts(LocalDate from, LocalDate to, ProductOrder orderBy, int limit) {
+        return bySku(from, to, orderBy, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    // Todos los SKU vendidos, de mayor a menor ingreso (para márgenes por producto)
+    @Cacheable(CACHE_BY_SKU)
+    public List<ProductSalesDto> revenueBySku(LocalDate from, LocalDate to) {
+        return bySku(from, to, ProductOrder.REVENUE, Pageable.unpaged());
+    }
+
+    @TransactionalEventListener
+    public void onSaleCompleted(SaleCompletedEvent event) {
+        LocalDate day = event.completedAt() != null ? event.completedAt().toLocalDate() : LocalDate.now();
+        evictOverlapping(day, day);
+    }
+
+    @TransactionalEventListener
+    public void onRollupRebuilt(SalesRollupRebuiltEvent event) {
+        evictOverlapping(event.from(), event.to());
+    }
+
+    @TransactionalEventListener
+    @CacheEvict(cacheNames = {CACHE_SUMMARY, CACHE_PERIODS, CACHE_TOP_PRODUCTS, CACHE_BY_SKU}, allEntries = true)
+    public void onSalesImported(SalesImportedEvent event) {
+        // solo invalida la caché
+    }
+
+    // Quita solo las entradas cuyo rango toca [from, to]
+    private void evictOverlapping(LocalDate from, LocalDate to) {
+        for (String name : CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache == null) continue;
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                caffeine.asMap().keySet().removeIf(k -> !(k instanceof RangeKey r) || r.overlaps(from, to));
+            } else {
+                cache.clear();
+            }
+        }
+    }
+
+    private List<ProductSalesDto> bySku(LocalDate from, LocalDate to, ProductOrder orderBy, Pageable pageable) {
+        var rows = orderBy == ProductOrder.REVENUE
+                ? salesDailyRollupRepository.sumBySkuOrderByRevenue(from, to, pageable)
+                : salesDailyRollupRepository.sumBySkuOrderByUnits(from, to, pageable);
+        return rows.stream()
+                .map(p -> new ProductSalesDto(p.getProductSku(), p.getUnits(), p.getRevenue(), p.getTickets()))
+                .toList();
+    }
+}
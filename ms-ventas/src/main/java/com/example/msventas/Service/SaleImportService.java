@@ -0,0 +1,296 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.CreateSaleItemDto;
+import com.example.msventas.Dto.ImportSaleDto;
+import com.example.msventas.Dto.SaleImportResultDto;
+import com.example.msventas.Dto.StockBatchUpdateDto;
+import com.example.msventas.Dto.StockUpdateDto;
+import com.example.msventas.Entity.Customer;
+import com.example.msventas.Entity.Sale;
+import com.example.msventas.Entity.SaleItem;
+import com.example.msventas.Event.SalesImportedEvent;
+import com.example.msventas.Repository.CustomerRepository;
+import com.example.msventas.Repository.SaleImportBatchRepository;
+import com.example.msventas.Repository.SaleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Importación masiva de ventas ya cobradas en un POS offline (cierre del día).
+// - El cuerpo se lee línea a línea (NDJSON o CSV), nunca completo en memoria.
+// - Las ventas se insertan por bloques con batch JDBC y se limpia el contexto de persistencia.
+// - A inventario se envía UN movimiento por SKU para todo el lote (vía outbox), repartido
+//   en filas de outbox de hasta stock-chunk-size SKUs ("IMPORT-{batchId}-{n}").
+// Todo ocurre en una sola transacción: si una línea es inválida no se importa nada.
+@Service
+@RequiredArgsConstructor
+public class SaleImportService {
+
+    // Máx. 40: "IMPORT-{batchId}-{n}" debe caber en stock_outbox.reference (60)
+    private static final Pattern BATCH_ID = Pattern.compile("[A-Za-z0-9_-]{1,40}");
+    private static final String REASON = "Importación de ventas POS";
+
+    private final SaleRepository saleRepository;
+    private final CustomerRepository customerRepository;
+    private final SaleImportBatchRepository importBatchRepository;
+    private final StockOutboxService stockOutboxService;
+    private final SalesRollupService salesRollupService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sales.import.chunk-size:500}")
+    private int chunkSize;
+
+    // SKUs por fila de outbox: acota el payload y el tamaño de cada llamada a inventario
+    @Value("${sales.import.stock-chunk-size:200}")
+    private int stockChunkSize;
+
+    // Una venta por línea: {"customerDni":"...","completedAt":"2025-01-15T18:30:00","items":[...]}
+    @Transactional(rollbackOn = IOException.class)
+    public SaleImportResultDto importNdjson(String batchId, InputStream body) throws IOException {
+        ImportBatch batch = new ImportBatch(batchId);
+        try (BufferedReader reader = reader(body)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+
+                ImportSaleDto dto;
+                try {
+                    dto = objectMapper.readValue(line, ImportSaleDto.class);
+                } catch (JsonProcessingException e) {
+                    throw badLine(lineNo, "JSON inválido");
+                }
+                batch.add(dto, lineNo);
+            }
+        }
+        return batch.finish();
+    }
+
+    // Un ítem por fila; las filas consecutivas con el mismo ticket forman una venta:
+    // ticket,customerDni,completedAt,productSku,quantity,unitPrice,unitType,unitsPerPackage
+    @Transactional(rollbackOn = IOException.class)
+    public SaleImportResultDto importCsv(String batchId, InputStream body) throws IOException {
+        ImportBatch batch = new ImportBatch(batchId);
+        try (BufferedReader reader = reader(body)) {
+            String line;
+            int lineNo = 0;
+            String currentTicket = null;
+            int ticketLine = 0;
+            String dni = null;
+            LocalDateTime completedAt = null;
+            List<CreateSaleItemDto> items = new ArrayList<>();
+
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                if (lineNo == 1 && line.toLowerCase().startsWith("ticket")) continue; // cabecera
+
+                String[] cols = line.split(",", -1);
+                if (cols.length < 6) {
+                    throw badLine(lineNo, "se esperaban al menos 6 columnas");
+                }
+                String ticket = cols[0].trim();
+                if (!ticket.equals(currentTicket)) {
+                    if (currentTicket != null) {
+                        batch.add(new ImportSaleDto(null, dni, completedAt, items), ticketLine);
+                    }
+                    currentTicket = ticket;
+                    ticketLine = lineNo;
+                    dni = cols[1].trim();
+                    completedAt = parseDateTime(cols[2].trim(), lineNo);
+                    items = new ArrayList<>();
+                }
+
+                try {
+                    items.add(new CreateSaleItemDto(
+                            cols[3].trim(),
+                            Integer.valueOf(cols[4].trim()),
+                            Double.valueOf(cols[5].trim()),
+                            cols.length > 6 && !cols[6].isBlank() ? cols[6].trim() : "UNIDAD",
+                            cols.length > 7 && !cols[7].isBlank() ? Integer.valueOf(cols[7].trim()) : 1
+                    ));
+                } catch (NumberFormatException e) {
+                    throw badLine(lineNo, "cantidad o precio inválido");
+                }
+            }
+            if (currentTicket != null) {
+                batch.add(new ImportSaleDto(null, dni, completedAt, items), ticketLine);
+            }
+        }
+        return batch.finish();
+    }
+
+    // Estado de una importación en curso
+    private class ImportBatch {
+        private final String reference;
+        private final String batchId;
+        private final List<Sale> chunk = new ArrayList<>();
+        private final Map<String, Customer> customersByDni = new HashMap<>();
+        private final Map<Long, Customer> customersById = new HashMap<>();
+        private final Map<Long, Long> salesByCustomer = new HashMap<>();
+        private final Map<String, Integer> unitsBySku = new LinkedHashMap<>();
+        private final SalesRollupService.RollupDelta rollups = new SalesRollupService.RollupDelta();
+        private int sales;
+        private int items;
+
+        ImportBatch(String batchId) {
+            if (batchId == null || !BATCH_ID.matcher(batchId).matches()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "batchId es obligatorio (letras, números, '-' o '_', máx. 40)");
+            }
+            this.batchId = batchId;
+            this.reference = "IMPORT-" + batchId;
+            // Se registra al empezar: una importación simultánea del mismo lote choca con la PK
+            try {
+                importBatchRepository.register(batchId, LocalDateTime.now());
+            } catch (DataIntegrityViolationException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "El lote " + batchId + " ya fue importado");
+            }
+        }
+
+        void add(ImportSaleDto dto, int lineNo) {
+            if (dto.items() == null || dto.items().isEmpty()) {
+                throw badLine(lineNo, "la venta no tiene ítems");
+            }
+            Customer customer = resolveCustomer(dto, lineNo);
+            LocalDateTime completedAt = dto.completedAt() != null ? dto.completedAt() : LocalDateTime.now();
+
+            Sale sale = new Sale();
+            sale.setCustomer(customer);
+            sale.setCustomerName(customer.getName());
+            sale.setStatus(SaleItem.SaleStatus.COMPLETED);
+            sale.setCreatedAt(completedAt);
+            sale.setCompletedAt(completedAt);
+
+            for (CreateSaleItemDto itemDto : dto.items()) {
+                if (itemDto.productSku() == null || itemDto.productSku().isBlank()
+                        || itemDto.quantity() == null || itemDto.quantity() <= 0) {
+                    throw badLine(lineNo, "ítem sin SKU o con cantidad inválida");
+                }
+                SaleItem item = new SaleItem();
+                item.setSale(sale);
+                item.setProductSku(itemDto.productSku());
+                item.setQuantity(itemDto.quantity());
+                item.setUnitPrice(itemDto.unitPrice());
+                item.setUnitType(itemDto.unitType());
+                item.setUnitsPerPackage(itemDto.unitsPerPackage());
+                sale.getItems().add(item);
+
+                int unitsPerPackage = itemDto.unitsPerPackage() != null ? itemDto.unitsPerPackage() : 1;
+                try {
+                    unitsBySku.merge(itemDto.productSku(),
+                            Math.multiplyExact(itemDto.quantity(), unitsPerPackage), Math::addExact);
+                } catch (ArithmeticException e) {
+                    throw badLine(lineNo, "cantidad fuera de rango para " + itemDto.productSku());
+                }
+                items++;
+            }
+
+            salesByCustomer.merge(customer.getId(), 1L, Long::sum);
+            chunk.add(sale);
+            sales++;
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        SaleImportResultDto finish() {
+            flushChunk();
+
+            salesByCustomer.forEach(customerRepository::addCompletedSales);
+            // Agregados diarios al final: sus filas (hoy, SKU) las tocan también las ventas en vivo
+            salesRollupService.apply(rollups);
+
+            // Referencia y motivo van una vez por fila de outbox, no en cada ítem
+            List<StockUpdateDto> stockUpdates = unitsBySku.entrySet().stream()
+                    .map(e -> new StockUpdateDto(e.getKey(), e.getValue(), StockUpdateDto.MovementType.SALIDA, null, null))
+                    .toList();
+            for (int i = 0, part = 1; i < stockUpdates.size(); i += stockChunkSize, part++) {
+                List<StockUpdateDto> chunkItems = stockUpdates.subList(i, Math.min(i + stockChunkSize, stockUpdates.size()));
+                stockOutboxService.enqueue(new StockBatchUpdateDto(reference + "-" + part, REASON, List.copyOf(chunkItems)));
+            }
+
+            importBatchRepository.recordTotals(batchId, sales, items);
+
+            eventPublisher.publishEvent(new SalesImportedEvent(reference, sales));
+            return new SaleImportResultDto(reference, sales, items, unitsBySku.size());
+        }
+
+        // Inserta el bloque (batch JDBC), acumula sus agregados diarios y libera la memoria
+        private void flushChunk() {
+            if (chunk.isEmpty()) return;
+            saleRepository.saveAll(chunk);
+            entityManager.flush();
+            chunk.forEach(rollups::add);
+            entityManager.clear();
+            chunk.clear();
+        }
+
+        private Customer resolveCustomer(ImportSaleDto dto, int lineNo) {
+            if (dto.customerId() != null) {
+                Customer c = customersById.get(dto.customerId());
+                if (c == null) {
+                    c = customerRepository.findById(dto.customerId())
+                            .orElseThrow(() -> badLine(lineNo, "cliente " + dto.customerId() + " no existe"));
+                    customersById.put(c.getId(), c);
+                }
+                return c;
+            }
+            if (dto.customerDni() == null || dto.customerDni().isBlank()) {
+                throw badLine(lineNo, "falta customerId o customerDni");
+            }
+            Customer c = customersByDni.get(dto.customerDni());
+            if (c == null) {
+                c = customerRepository.findByDni(dto.customerDni())
+                        .orElseThrow(() -> badLine(lineNo, "cliente con DNI " + dto.customerDni() + " no existe"));
+                customersByDni.put(c.getDni(), c);
+            }
+            return c;
+        }
+    }
+
+    private BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime parseDateTime(String value, int lineNo) {
+        if (value.isEmpty()) return null;
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw badLine(lineNo, "fecha inválida '" + value + "'");
+        }
+    }
+
+    private ResponseStatusException badLine(int lineNo, String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Línea " + lineNo + ": " + message);
+    }
+}
@@ -2,26 +2,38 @@ package com.example.msventas.Service;
 
 import com.example.msventas.Dto.CreateSaleDto;
 import com.example.msventas.Dto.CreateSaleItemDto;
+import com.example.msventas.Dto.CursorPageDto;
 import com.example.msventas.Dto.SaleDto;
 import com.example.msventas.Dto.SaleItemDto;
+import com.example.msventas.Dto.SaleSummaryDto;
+import com.example.msventas.Dto.StockBatchUpdateDto;
 import com.example.msventas.Dto.StockUpdateDto;
 import com.example.msventas.Entity.Sale;
 import com.example.msventas.Entity.SaleItem;
+import com.example.msventas.Event.SaleCompletedEvent;
 import com.example.msventas.Repository.SaleRepository;
-import com.example.msventas.feign.InventoryClient;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class SaleService {
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final SaleRepository saleRepository;
-    private final InventoryClient inventoryClient;
+    private final StockOutboxService stockOutboxService;
+    private final SalesRollupService salesRollupService;
     private final com.example.msventas.Repository.CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Transactional
@@ -82,29 +94,53 @@ public class SaleService {
 
     @Transactional
     public SaleDto complete(Long saleId) {
+        // 👉 PENDING -> COMPLETED con un UPDATE condicional: de dos llamadas concurrentes solo una
+        //    afecta la fila, así el stock, los agregados y el contador no se aplican dos veces
+        int updated = saleRepository.markCompleted(
+                saleId, LocalDateTime.now(), SaleItem.SaleStatus.PENDING, SaleItem.SaleStatus.COMPLETED
+        );
         Sale sale = saleRepository.findById(saleId)
                 .orElseThrow(() -> new RuntimeException("Sale not found"));
+        if (updated == 0) {
+            return toDto(sale);   // ya completada (o cancelada): se devuelve el estado actual
+        }
 
-        sale.setStatus(SaleItem.SaleStatus.COMPLETED);
-        sale.setCompletedAt(LocalDateTime.now());
-        saleRepository.save(sale);
-
-        // Actualizamos inventario en UNIDADES BASE
+        // Actualizamos inventario en UNIDADES BASE, agrupando por SKU
+        Map<String, Integer> unitsBySku = new LinkedHashMap<>();
         sale.getItems().forEach(item -> {
             int unitsPerPackage = item.getUnitsPerPackage() != null ? item.getUnitsPerPackage() : 1;
             int qtyPackages = item.getQuantity() != null ? item.getQuantity() : 0;
-            int totalUnits = qtyPackages * unitsPerPackage;
-
-            StockUpdateDto stockUpdate = new StockUpdateDto(
-                    item.getProductSku(),
-                    totalUnits,
-                    StockUpdateDto.MovementType.SALIDA,
-                    "SALE-" + saleId,
-                    "Venta completada"
-            );
-            inventoryClient.updateStock(stockUpdate);
+            unitsBySku.merge(item.getProductSku(), qtyPackages * unitsPerPackage, Integer::sum);
         });
 
+        if (!unitsBySku.isEmpty()) {
+            String reference = "SALE-" + saleId;
+            List<StockUpdateDto> stockUpdates = unitsBySku.entrySet().stream()
+                    .map(e -> new StockUpdateDto(
+                            e.getKey(),
+                            e.getValue(),
+                            StockUpdateDto.MovementType.SALIDA,
+                            reference,
+                            "Venta completada"
+                    ))
+                    .toList();
+
+            // Se registra en el outbox dentro de esta transacción; el relay lo envía
+            // a inventario en segundo plano (una sola llamada por ticket)
+            stockOutboxService.enqueue(new StockBatchUpdateDto(reference, "Venta completada", stockUpdates));
+        }
+
+        // Agregados diarios para reportes (misma transacción que la venta)
+        salesRollupService.addCompletedSale(sale);
+        if (sale.getCustomer() != null) {
+            customerRepository.addCompletedSales(sale.getCustomer().getId(), 1);
+        }
+
+        eventPublisher.publishEvent(new SaleCompletedEvent(
+                sale.getId(),
+                sale.getCustomer() != null ? sale.getCustomer().getId() : null,
+                sale.getCompletedAt()
+        ));
         return toDto(sale);
     }
 
@@ -147,9 +183,51 @@ public class SaleService {
 
 
     public List<SaleDto> findAll() {
-        return saleRepository.findAll()
+        return saleRepository.findAllWithItems()
+                .stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    // 👉 Página por keyset (id descendente). from/to son días inclusivos.
+    public CursorPageDto<SaleDto> findPage(
+            int size, Long cursor, SaleItem.SaleStatus status, LocalDate from, LocalDate to
+    ) {
+        int limit = clampPageSize(size);
+        List<Long> ids = saleRepository.findPageIds(
+                status, startOf(from), endOf(to), cursor, PageRequest.of(0, limit)
+        );
+        if (ids.isEmpty()) {
+            return new CursorPageDto<>(List.of(), null);
+        }
+
+        List<SaleDto> items = saleRepository.findWithItemsByIdIn(ids)
                 .stream()
                 .map(this::toDto)
                 .toList();
+        return new CursorPageDto<>(items, ids.size() == limit ? ids.get(ids.size() - 1) : null);
+    }
+
+    public CursorPageDto<SaleSummaryDto> findSummaryPage(
+            int size, Long cursor, SaleItem.SaleStatus status, LocalDate from, LocalDate to
+    ) {
+        int limit = clampPageSize(size);
+        List<SaleSummaryDto> items = saleRepository.findSummaryPage(
+                status, startOf(from), endOf(to), cursor, PageRequest.of(0, limit)
+        );
+        Long next = items.size() == limit ? items.get(items.size() - 1).id() : null;
+        return new CursorPageDto<>(items, next);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private LocalDateTime startOf(LocalDate d) {
+        return d != null ? d.atStartOfDay() : null;
+    }
+
+    private LocalDateTime endOf(LocalDate d) {
+        return d != null ? d.plusDays(1).atStartOfDay() : null;
     }
 }
@@ -0,0 +1,132 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Entity.Sale;
+import com.example.msventas.Event.SalesRollupRebuiltEvent;
+import com.example.msventas.Repository.CustomerDailyRollupRepository;
+import com.example.msventas.Repository.SalesDailyRollupRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mantiene las tablas de agregados diarios (sales_daily_rollup y customer_daily_rollup).
+// Los reportes leen de aquí: su costo depende de los días consultados, no del número de tickets.
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final CustomerDailyRollupRepository customerDailyRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${rollup.rebuild.days:2}")
+    private int reconcileDays;
+
+    // 👉 Se llama dentro de la transacción de SaleService.complete:
+    //    si la venta hace rollback, el agregado también.
+    @Transactional
+    public void addCompletedSale(Sale sale) {
+        addCompletedSales(List.of(sale));
+    }
+
+    // Agrega primero en memoria por (día, SKU) y (día, cliente) y luego hace un upsert por fila
+    @Transactional
+    public void addCompletedSales(List<Sale> sales) {
+        RollupDelta delta = new RollupDelta();
+        sales.forEach(delta::add);
+        apply(delta);
+    }
+
+    // 👉 Escribe de una vez lo acumulado (la importación masiva acumula todo el lote y lo
+    //    aplica al final, para no retener los bloqueos de las filas del día durante la carga)
+    @Transactional
+    public void apply(RollupDelta delta) {
+        delta.bySku.forEach((k, t) -> salesDailyRollupRepository.add(k.day(), k.sku(), t.units, t.revenue, t.tickets));
+        delta.byCustomer.forEach((k, t) -> customerDailyRollupRepository.add(k.day(), k.customerId(), t.tickets, t.units, t.revenue));
+    }
+
+    // Totales pendientes de escribir por (día, SKU) y (día, cliente)
+    public static class RollupDelta {
+        private final Map<DaySku, Totals> bySku = new LinkedHashMap<>();
+        private final Map<DayCustomer, Totals> byCustomer = new LinkedHashMap<>();
+
+        public void add(Sale sale) {
+            if (sale.getCompletedAt() == null) {
+                return;
+            }
+            LocalDate day = sale.getCompletedAt().toLocalDate();
+
+            Map<String, Totals> saleBySku = new LinkedHashMap<>();
+            sale.getItems().forEach(item -> {
+                int qty = item.getQuantity() != null ? item.getQuantity() : 0;
+                int unitsPerPackage = item.getUnitsPerPackage() != null ? item.getUnitsPerPackage() : 1;
+                double price = item.getUnitPrice() != null ? item.getUnitPrice() : 0.0;
+                saleBySku.computeIfAbsent(item.getProductSku(), k -> new Totals())
+                        .add((long) qty * unitsPerPackage, qty * price, 0);
+            });
+
+            Totals saleTotals = new Totals();
+            saleBySku.forEach((sku, t) -> {
+                // cada SKU cuenta el ticket una sola vez
+                bySku.computeIfAbsent(new DaySku(day, sku), k -> new Totals()).add(t.units, t.revenue, 1);
+                saleTotals.add(t.units, t.revenue, 0);
+            });
+
+            if (sale.getCustomer() != null) {
+                byCustomer.computeIfAbsent(new DayCustomer(day, sale.getCustomer().getId()), k -> new Totals())
+                        .add(saleTotals.units, saleTotals.revenue, 1);
+            }
+        }
+    }
+
+    // 👉 Backfill / corrección: borra y recalcula los días [from, to] desde sales y sale_items
+    @Transactional
+    public void rebuild(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from y to son obligatorios");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha 'from' no puede ser mayor que 'to'");
+        }
+        LocalDate end = to.plusDays(1);
+
+        salesDailyRollupRepository.deleteRange(from, end);
+        customerDailyRollupRepository.deleteRange(from, end);
+        salesDailyRollupRepository.rebuildRange(from.atStartOfDay(), end.atStartOfDay());
+        customerDailyRollupRepository.rebuildRange(from.atStartOfDay(), end.atStartOfDay());
+
+        // Las estadísticas cacheadas ya no son válidas
+        eventPublisher.publishEvent(new SalesRollupRebuiltEvent(from, to));
+    }
+
+    // Recalcula cada noche los últimos días por si algo quedó desfasado
+    @Scheduled(cron = "${rollup.rebuild.cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(Math.max(reconcileDays, 1)), today);
+    }
+
+    private record DaySku(LocalDate day, String sku) {}
+
+    private record DayCustomer(LocalDate day, Long customerId) {}
+
+    private static class Totals {
+        long units;
+        double revenue;
+        long tickets;
+
+        void add(long units, double revenue, long tickets) {
+            this.units += units;
+            this.revenue += revenue;
+            this.tickets += tickets;
+        }
+    }
+}
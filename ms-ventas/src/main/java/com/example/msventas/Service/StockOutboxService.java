@@ -0,0 +1,191 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.StockBatchResultDto;
+import com.example.msventas.Dto.StockBatchUpdateDto;
+import com.example.msventas.Dto.StockItemResultDto;
+import com.example.msventas.Entity.StockOutboxEvent;
+import com.example.msventas.Event.StockOutboxEnqueuedEvent;
+import com.example.msventas.Repository.StockOutboxRepository;
+import com.example.msventas.feign.InventoryClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+@RequiredArgsConstructor
+public class StockOutboxService {
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+
+    private final StockOutboxRepository outboxRepository;
+    private final InventoryClient inventoryClient;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor outboxRelayExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${outbox.relay.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:50}")
+    private int maxAttempts;
+
+    // Plazo de un reclamo: si la instancia muere a mitad de envío, pasado este tiempo otra lo retoma
+    @Value("${outbox.relay.lease-seconds:60}")
+    private long leaseSeconds;
+
+    // 👉 Se llama dentro de la transacción de la venta: si la venta hace rollback,
+    //    el movimiento de stock tampoco queda registrado.
+    @Transactional
+    public void enqueue(StockBatchUpdateDto dto) {
+        StockOutboxEvent event = new StockOutboxEvent();
+        event.setReference(dto.reference());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(dto));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el movimiento " + dto.reference(), e);
+        }
+        outboxRepository.save(event);
+        eventPublisher.publishEvent(new StockOutboxEnqueuedEvent(event.getId(), event.getReference()));
+    }
+
+    // 👉 Tras el commit de la venta se envía en segundo plano sin esperar al relay programado
+    @TransactionalEventListener
+    public void onEnqueued(StockOutboxEnqueuedEvent event) {
+        submit(event.outboxId()).thenAccept(error -> {
+            if (error != null) {
+                System.err.println("⚠️ Outbox: envío inmediato falló, se reintentará (" + error + ")");
+            }
+        });
+    }
+
+    // 👉 Relay: envía los pendientes a ms-inventario en paralelo (outbox.relay.parallelism).
+    //    Cada fila se reclama con un UPDATE condicional antes de enviarla, así varias instancias
+    //    no envían la misma. Si falla, reintenta con backoff exponencial. La referencia
+    //    ("SALE-{id}") viaja como clave de idempotencia: un reenvío no descuenta dos veces.
+    @Scheduled(fixedDelayString = "${outbox.relay.delay-ms:2000}")
+    public void relay() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockOutboxEvent> due = outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                List.of(StockOutboxEvent.Status.PENDING, StockOutboxEvent.Status.SENDING), now, PageRequest.of(0, batchSize)
+        );
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> calls = due.stream()
+                .map(e -> submit(e.getId()))
+                .toList();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+        // Un solo reporte por ciclo con todos los errores
+        List<String> errors = calls.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+        if (!errors.isEmpty()) {
+            System.err.println("⚠️ Outbox: " + errors.size() + " de " + calls.size()
+                    + " envíos fallaron -> " + String.join(" | ", errors));
+        }
+    }
+
+    // Encola el envío en el pool acotado; devuelve null si salió bien (o lo tiene otro) o "REF: error"
+    private CompletableFuture<String> submit(Long outboxId) {
+        try {
+            return CompletableFuture.supplyAsync(() -> send(outboxId), outboxRelayExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture("#" + outboxId + ": pool de envío lleno");
+        }
+    }
+
+    private String send(Long outboxId) {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = outboxRepository.claim(
+                outboxId, token, now, now.plusSeconds(leaseSeconds),
+                StockOutboxEvent.Status.PENDING, StockOutboxEvent.Status.SENDING
+        );
+        if (claimed == 0) {
+            return null;   // ya enviada, en backoff o reclamada por otra instancia/hilo
+        }
+        StockOutboxEvent event = outboxRepository.findById(outboxId).orElse(null);
+        if (event == null) {
+            return null;
+        }
+
+        String error = null;
+        int attempts = event.getAttempts();
+        StockOutboxEvent.Status status;
+        String lastError = null;
+        LocalDateTime nextAttemptAt = now;
+        LocalDateTime sentAt = null;
+        try {
+            StockBatchUpdateDto dto = objectMapper.readValue(event.getPayload(), StockBatchUpdateDto.class);
+            StockBatchResultDto result = inventoryClient.updateStockBatch(dto);
+            String rejected = rejectedItems(result);
+            if (rejected == null) {
+                status = StockOutboxEvent.Status.SENT;
+                sentAt = LocalDateTime.now();
+            } else {
+                // 👉 Ítems rechazados (p. ej. stock insuficiente): reintentar no los arregla,
+                //    así que la fila queda FAILED para revisión en vez de darse por enviada.
+                status = StockOutboxEvent.Status.FAILED;
+                lastError = truncate("Rechazados: " + rejected);
+                error = event.getReference() + ": " + lastError;
+                System.err.println("⚠️ Outbox: " + event.getReference()
+                        + " marcado FAILED, inventario rechazó ítems -> " + rejected);
+            }
+        } catch (Exception e) {
+            attempts++;
+            lastError = truncate(e.getMessage());
+            error = event.getReference() + ": " + lastError;
+            if (attempts >= maxAttempts) {
+                status = StockOutboxEvent.Status.FAILED;
+                System.err.println("⚠️ Outbox: " + event.getReference()
+                        + " marcado FAILED tras " + attempts + " intentos");
+            } else {
+                status = StockOutboxEvent.Status.PENDING;
+                long backoff = Math.min(1L << Math.min(attempts, 16), MAX_BACKOFF_SECONDS);
+                nextAttemptAt = LocalDateTime.now().plusSeconds(backoff);
+            }
+        }
+
+        // Sin guardar la entidad entera: solo si seguimos teniendo el reclamo
+        if (outboxRepository.finish(outboxId, token, status, attempts, lastError, nextAttemptAt, sentAt) == 0) {
+            System.err.println("⚠️ Outbox: " + event.getReference()
+                    + " fue retomada por otra instancia; se descarta este resultado");
+        }
+        return error;
+    }
+
+    // "SKU: motivo" de los ítems REJECTED, o null si no hubo ninguno
+    private String rejectedItems(StockBatchResultDto result) {
+        if (result == null || result.items() == null || result.rejected() == 0) {
+            return null;
+        }
+        List<String> rejected = result.items().stream()
+                .filter(i -> i.status() == StockItemResultDto.Status.REJECTED)
+                .map(i -> i.productSku() + ": " + i.message())
+                .toList();
+        return rejected.isEmpty() ? null : String.join(", ", rejected);
+    }
+
+    private String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
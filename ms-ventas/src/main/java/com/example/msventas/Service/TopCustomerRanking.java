@@ -0,0 +1,132 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.TopCustomerDto;
+import com.example.msventas.Event.SaleCompletedEvent;
+import com.example.msventas.Event.SalesImportedEvent;
+import com.example.msventas.Repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Top-K de compradores en memoria (skiplist ordenada por ventas desc, id asc).
+// Las lecturas no bloquean; las escrituras (una por venta completada) se serializan.
+// Se recarga desde customers.completed_sales al arrancar, cada cierto tiempo y a pedido.
+@Component
+@RequiredArgsConstructor
+public class TopCustomerRanking {
+
+    private static final Comparator<TopCustomerDto> ORDER = Comparator
+            .comparing(TopCustomerDto::totalSales, Comparator.reverseOrder())
+            .thenComparing(TopCustomerDto::customerId);
+
+    private final CustomerRepository customerRepository;
+
+    // Ranking + índice por cliente. Se reemplazan juntos al recargar: top() nunca ve uno a medio llenar
+    private record State(ConcurrentSkipListSet<TopCustomerDto> ranking, Map<Long, TopCustomerDto> byCustomerId) {
+        static State empty() {
+            return new State(new ConcurrentSkipListSet<>(ORDER), new ConcurrentHashMap<>());
+        }
+    }
+
+    private volatile State state = State.empty();
+
+    // Serializa las escrituras. ReentrantLock y no synchronized: ambas consultan la BD y con
+    // hilos virtuales (perfil "virtual") synchronized fijaría el hilo portador durante la espera
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Value("${customers.top.capacity:100}")
+    private int capacity;
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // null si se piden más posiciones de las que se guardan en memoria
+    public List<TopCustomerDto> top(int limit) {
+        if (limit > capacity) {
+            return null;
+        }
+        List<TopCustomerDto> result = new ArrayList<>(limit);
+        for (TopCustomerDto dto : state.ranking()) {
+            if (result.size() >= limit) break;
+            result.add(dto);
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${customers.top.refresh-ms:300000}", initialDelayString = "${customers.top.refresh-ms:300000}")
+    public void refresh() {
+        writeLock.lock();
+        try {
+            var rows = customerRepository.findTopCustomers(PageRequest.of(0, capacity))
+                    .stream()
+                    .map(p -> new TopCustomerDto(p.getCustomerId(), p.getDni(), p.getName(), p.getTotalSales()))
+                    .toList();
+
+            State fresh = State.empty();
+            rows.forEach(dto -> put(fresh, dto));
+            state = fresh;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 👉 Tras el commit de la venta: se lee el contador ya actualizado y se recoloca al cliente
+    @TransactionalEventListener
+    public void onSaleCompleted(SaleCompletedEvent event) {
+        if (event.customerId() == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            State current = state;
+            var ranking = current.ranking();
+            var byCustomerId = current.byCustomerId();
+            customerRepository.findRankingEntry(event.customerId()).ifPresent(p -> {
+                TopCustomerDto updated = new TopCustomerDto(p.getCustomerId(), p.getDni(), p.getName(), p.getTotalSales());
+
+                TopCustomerDto previous = byCustomerId.remove(updated.customerId());
+                if (previous != null) {
+                    ranking.remove(previous);
+                }
+
+                // Si el ranking está lleno, solo entra si supera al último
+                if (ranking.size() >= capacity && ORDER.compare(updated, ranking.last()) > 0) {
+                    return;
+                }
+                put(current, updated);
+                while (ranking.size() > capacity) {
+                    TopCustomerDto evicted = ranking.pollLast();
+                    byCustomerId.remove(evicted.customerId());
+                }
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Una importación masiva cambia muchos contadores a la vez: se recarga completo
+    @TransactionalEventListener
+    public void onSalesImported(SalesImportedEvent event) {
+        refresh();
+    }
+
+    private static void put(State target, TopCustomerDto dto) {
+        target.ranking().add(dto);
+        target.byCustomerId().put(dto.customerId(), dto);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.msventas.feign;
 
+import com.example.msventas.Dto.StockBatchResultDto;
+import com.example.msventas.Dto.StockBatchUpdateDto;
 import com.example.msventas.Dto.StockUpdateDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -13,6 +15,11 @@ public interface InventoryClient {
     @CircuitBreaker(name = "updateStockCB", fallbackMethod = "fallbackUpdateStock")
     void updateStock(@RequestBody StockUpdateDto dto);
 
+    // Todos los ítems de una venta en una sola llamada; devuelve el estado de cada ítem
+    @PostMapping("/update-batch")
+    @CircuitBreaker(name = "updateStockCB", fallbackMethod = "fallbackUpdateStockBatch")
+    StockBatchResultDto updateStockBatch(@RequestBody StockBatchUpdateDto dto);
+
     // Fallback method
     default void fallbackUpdateStock(StockUpdateDto dto, Throwable e) {
         System.err.println("⚠️ CircuitBreaker: ms-inventario-service no disponible (SKU: "
@@ -20,4 +27,10 @@ public interface InventoryClient {
         // Aquí podrías guardar en cola temporal, BD o simplemente loguear
         // para procesar cuando el inventario vuelva a estar disponible.
     }
+
+    // Sin silenciar el error: el outbox de ventas necesita saber que falló para reintentar
+    default StockBatchResultDto fallbackUpdateStockBatch(StockBatchUpdateDto dto, Throwable e) {
+        throw new IllegalStateException("ms-inventario-service no disponible (Referencia: "
+                + dto.reference() + ")", e);
+    }
 }
@@ -0,0 +1,12 @@
+-- Ejecutar una sola vez en ms_venta al desplegar la versión con ids por secuencia
+-- en Sale y SaleItem. MySQL no tiene secuencias: Hibernate las emula con una tabla
+-- (next_val) y el optimizador pooled reserva bloques de 50 ids.
+-- Se arranca por encima del mayor id existente para no chocar con los AUTO_INCREMENT previos.
+
+CREATE TABLE IF NOT EXISTS sale_seq (next_val BIGINT);
+DELETE FROM sale_seq;
+INSERT INTO sale_seq (next_val) SELECT COALESCE(MAX(id), 0) + 100 FROM sales;
+
+CREATE TABLE IF NOT EXISTS sale_item_seq (next_val BIGINT);
+DELETE FROM sale_item_seq;
+INSERT INTO sale_item_seq (next_val) SELECT COALESCE(MAX(id), 0) + 100 FROM sale_items;
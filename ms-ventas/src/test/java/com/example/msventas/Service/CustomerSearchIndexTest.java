@@ -0,0 +1,53 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.CustomerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerSearchIndexTest {
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerSearchIndex();
+        index.load(List.of(
+                new CustomerDto(1L, "70123456", "Ana Torres", null),
+                new CustomerDto(2L, "70999999", "Luis Ana Quispe", null),
+                new CustomerDto(3L, "41000000", "Carlos Pérez", null)));
+    }
+
+    @Test
+    void searchesByDniNameAndWordPrefix() {
+        assertThat(ids(index.search("701", 10))).containsExactly(1L);
+        assertThat(ids(index.search("  CAR ", 10))).containsExactly(3L);
+        assertThat(ids(index.search("quis", 10))).containsExactly(2L);
+        assertThat(ids(index.search("ana", 10))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void putReplacesKeysOfPreviousVersion() {
+        index.put(new CustomerDto(3L, "41000000", "Carla Pérez", null));
+
+        assertThat(index.search("carlos", 10)).isEmpty();
+        assertThat(ids(index.search("carla", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void reloadPicksUpCustomersCreatedElsewhere() {
+        index.load(List.of(
+                new CustomerDto(1L, "70123456", "Ana Torres", null),
+                new CustomerDto(4L, "12345678", "Rosa Díaz", null)));
+
+        assertThat(ids(index.search("rosa", 10))).containsExactly(4L);
+        assertThat(index.search("carlos", 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<CustomerDto> rows) {
+        return rows.stream().map(CustomerDto::id).toList();
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.SaleImportResultDto;
+import com.example.msventas.Dto.StockBatchUpdateDto;
+import com.example.msventas.Dto.StockUpdateDto;
+import com.example.msventas.Entity.Customer;
+import com.example.msventas.Entity.Sale;
+import com.example.msventas.Entity.SaleItem;
+import com.example.msventas.Repository.CustomerRepository;
+import com.example.msventas.Repository.SaleImportBatchRepository;
+import com.example.msventas.Repository.SaleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SaleImportServiceTest {
+
+    private static final String HEADER = "ticket,customerDni,completedAt,productSku,quantity,unitPrice,unitType,unitsPerPackage\n";
+
+    private SaleRepository saleRepository;
+    private CustomerRepository customerRepository;
+    private SaleImportBatchRepository importBatchRepository;
+    private StockOutboxService stockOutboxService;
+    private EntityManager entityManager;
+    private SaleImportService service;
+
+    // Copia de cada bloque guardado: el servicio vacía su lista tras saveAll
+    private final List<List<Sale>> savedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        saleRepository = mock(SaleRepository.class);
+        customerRepository = mock(CustomerRepository.class);
+        importBatchRepository = mock(SaleImportBatchRepository.class);
+        stockOutboxService = mock(StockOutboxService.class);
+        entityManager = mock(EntityManager.class);
+
+        doAnswer(inv -> {
+            List<Sale> chunk = new ArrayList<>(inv.<List<Sale>>getArgument(0));
+            savedChunks.add(chunk);
+            return chunk;
+        }).when(saleRepository).saveAll(any());
+        when(customerRepository.findByDni("70123456")).thenReturn(Optional.of(customer(1L, "70123456")));
+        when(customerRepository.findByDni("41000000")).thenReturn(Optional.of(customer(2L, "41000000")));
+
+        service = new SaleImportService(saleRepository, customerRepository, importBatchRepository, stockOutboxService,
+                mock(SalesRollupService.class), new ObjectMapper(), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "chunkSize", 500);
+        ReflectionTestUtils.setField(service, "stockChunkSize", 200);
+    }
+
+    @Test
+    void consecutiveRowsOfTheSameTicketFormOneSale() throws IOException {
+        SaleImportResultDto result = importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,2,3.5,,\n"
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000002,1,10.0,CAJA,12\n"
+                + "T2,41000000,2025-01-15T19:00:00,PRD-000001,5,3.5\n"
+                + "\n"
+                + "T1,70123456,2025-01-15T20:00:00,PRD-000003,1,1.0\n");
+
+        List<Sale> sales = savedChunks.stream().flatMap(List::stream).toList();
+        assertThat(sales).hasSize(3);
+        assertThat(sales).extracting(s -> s.getCustomer().getId(), s -> s.getItems().size())
+                .containsExactly(tuple(1L, 2), tuple(2L, 1), tuple(1L, 1));
+        assertThat(sales.get(0).getItems())
+                .extracting(SaleItem::getProductSku, SaleItem::getUnitType, SaleItem::getUnitsPerPackage)
+                .containsExactly(tuple("PRD-000001", "UNIDAD", 1), tuple("PRD-000002", "CAJA", 12));
+        assertThat(sales).allMatch(s -> s.getStatus() == SaleItem.SaleStatus.COMPLETED);
+
+        assertThat(result.sales()).isEqualTo(3);
+        assertThat(result.items()).isEqualTo(4);
+        assertThat(result.skus()).isEqualTo(3);
+        assertThat(result.reference()).isEqualTo("IMPORT-POS-01");
+    }
+
+    @Test
+    void sendsOneStockMovementPerSkuInUnits() throws IOException {
+        importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,2,3.5\n"
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000002,1,10.0,CAJA,12\n"
+                + "T2,41000000,2025-01-15T19:00:00,PRD-000001,5,3.5\n");
+
+        ArgumentCaptor<StockBatchUpdateDto> captor = ArgumentCaptor.forClass(StockBatchUpdateDto.class);
+        verify(stockOutboxService).enqueue(captor.capture());
+        assertThat(captor.getValue().reference()).isEqualTo("IMPORT-POS-01-1");
+        // Referencia y motivo solo a nivel de lote
+        assertThat(captor.getValue().items())
+                .extracting(StockUpdateDto::productSku, StockUpdateDto::quantity, StockUpdateDto::type,
+                        StockUpdateDto::reference, StockUpdateDto::reason)
+                .containsExactly(
+                        tuple("PRD-000001", 7, StockUpdateDto.MovementType.SALIDA, null, null),
+                        tuple("PRD-000002", 12, StockUpdateDto.MovementType.SALIDA, null, null));
+    }
+
+    @Test
+    void stockMovementsAreSplitIntoBoundedOutboxRows() throws IOException {
+        ReflectionTestUtils.setField(service, "stockChunkSize", 2);
+
+        importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,1,1.0\n"
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000002,1,1.0\n"
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000003,1,1.0\n");
+
+        ArgumentCaptor<StockBatchUpdateDto> captor = ArgumentCaptor.forClass(StockBatchUpdateDto.class);
+        verify(stockOutboxService, times(2)).enqueue(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(StockBatchUpdateDto::reference, b -> b.items().size())
+                .containsExactly(tuple("IMPORT-POS-01-1", 2), tuple("IMPORT-POS-01-2", 1));
+    }
+
+    @Test
+    void unitOverflowRejectsTheLine() {
+        assertThatThrownBy(() -> importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,2000000000,1.0,CAJA,12\n"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).startsWith("Línea 2");
+                });
+    }
+
+    @Test
+    void emptyBatchIsRegisteredSoItCannotBeImportedAgain() throws IOException {
+        SaleImportResultDto result = importCsv(HEADER);
+
+        assertThat(result.sales()).isZero();
+        verify(importBatchRepository).register(eq("POS-01"), any());
+        verify(importBatchRepository).recordTotals("POS-01", 0, 0);
+        verify(stockOutboxService, never()).enqueue(any());
+    }
+
+    @Test
+    void completedSalesAreCountedPerCustomerAndCustomersLookedUpOnce() throws IOException {
+        importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,1,1.0\n"
+                + "T2,70123456,2025-01-15T18:40:00,PRD-000001,1,1.0\n"
+                + "T3,41000000,2025-01-15T18:50:00,PRD-000001,1,1.0\n");
+
+        verify(customerRepository, times(1)).findByDni("70123456");
+        verify(customerRepository).addCompletedSales(1L, 2L);
+        verify(customerRepository).addCompletedSales(2L, 1L);
+    }
+
+    @Test
+    void salesAreSavedInChunksAndThePersistenceContextCleared() throws IOException {
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+
+        importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,1,1.0\n"
+                + "T2,70123456,2025-01-15T18:40:00,PRD-000001,1,1.0\n"
+                + "T3,41000000,2025-01-15T18:50:00,PRD-000001,1,1.0\n");
+
+        assertThat(savedChunks).extracting(List::size).containsExactly(2, 1);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void invalidQuantityRejectsTheWholeFileWithItsLineNumber() {
+        assertThatThrownBy(() -> importCsv(HEADER
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000001,1,1.0\n"
+                + "T1,70123456,2025-01-15T18:30:00,PRD-000002,dos,1.0\n"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).startsWith("Línea 3");
+                });
+        verify(stockOutboxService, never()).enqueue(any());
+    }
+
+    @Test
+    void alreadyImportedBatchIsRejected() {
+        when(importBatchRepository.register(anyString(), any())).thenThrow(new DataIntegrityViolationException("PK"));
+
+        assertThatThrownBy(() -> importCsv(HEADER))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    private SaleImportResultDto importCsv(String csv) throws IOException {
+        return service.importCsv("POS-01", new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Customer customer(Long id, String dni) {
+        Customer c = new Customer();
+        c.setId(id);
+        c.setDni(dni);
+        c.setName("Cliente " + id);
+        return c;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Entity.Customer;
+import com.example.msventas.Entity.Sale;
+import com.example.msventas.Entity.SaleItem;
+import com.example.msventas.Repository.CustomerDailyRollupRepository;
+import com.example.msventas.Repository.CustomerRepository;
+import com.example.msventas.Repository.SaleRepository;
+import com.example.msventas.Repository.SalesDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Los agregados diarios que se suman venta a venta (upserts de SalesRollupService) deben
+// coincidir con los que se recalculan desde sales/sale_items (rebuild), contra un MySQL real.
+// Precios múltiplos de 0.25: las sumas en double son exactas y se comparan sin tolerancia.
+// Se omite si no hay Docker disponible.
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SalesRollupService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class SalesRollupRebuildTest {
+
+    private static final List<String> SKUS = List.of("PRD-000001", "PRD-000002", "PRD-000003", "PRD-000004");
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 28);   // cruza el cambio de mes
+    private static final int DAYS = 10;
+    private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(DAYS - 1);
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private SalesRollupService rollupService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository salesDailyRollupRepository;
+
+    @Autowired
+    private CustomerDailyRollupRepository customerDailyRollupRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Customer c = new Customer();
+            c.setDni("7000000" + i);
+            c.setName("Cliente " + i);
+            customers.add(customerRepository.save(c));
+        }
+
+        // Ventas aleatorias (semilla fija): con y sin cliente, SKU repetido en el ticket,
+        // tickets sin ítems y pendientes que no deben contar
+        Random random = new Random(7);
+        for (int n = 0; n < 300; n++) {
+            Sale sale = new Sale();
+            Customer customer = random.nextInt(4) == 0 ? null : customers.get(random.nextInt(customers.size()));
+            sale.setCustomer(customer);
+            sale.setCustomerName(customer != null ? customer.getName() : "Cliente varios");
+
+            int lines = random.nextInt(5);   // 0 = ticket sin ítems
+            for (int l = 0; l < lines; l++) {
+                SaleItem item = new SaleItem();
+                item.setSale(sale);
+                item.setProductSku(SKUS.get(random.nextInt(SKUS.size())));
+                item.setQuantity(1 + random.nextInt(6));
+                item.setUnitPrice((1 + random.nextInt(200)) * 0.25);
+                item.setUnitsPerPackage(random.nextBoolean() ? null : 12);
+                sale.getItems().add(item);
+            }
+
+            boolean completed = random.nextInt(5) != 0;
+            if (completed) {
+                sale.setStatus(SaleItem.SaleStatus.COMPLETED);
+                sale.setCompletedAt(FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), random.nextInt(60)));
+            }
+            saleRepository.save(sale);
+            if (completed) {
+                rollupService.addCompletedSale(sale);   // como SaleService.complete
+            }
+        }
+        saleRepository.flush();
+    }
+
+    @Test
+    void incrementalRollupsMatchAFullRebuild() {
+        List<String> bySku = skuTotals();
+        List<String> byDay = customerDays();
+        List<String> byMonth = customerMonths();
+        String totals = customerTotals();
+
+        rollupService.rebuild(FIRST_DAY, LAST_DAY);
+
+        assertThat(skuTotals()).isEqualTo(bySku);
+        assertThat(customerDays()).isEqualTo(byDay);
+        assertThat(customerMonths()).isEqualTo(byMonth);
+        assertThat(customerTotals()).isEqualTo(totals);
+    }
+
+    @Test
+    void rebuildRepairsDriftedRowsOnlyInsideTheRange() {
+        List<String> expected = customerDays();
+        LocalDate damaged = FIRST_DAY.plusDays(3);
+        LocalDate untouched = FIRST_DAY.plusDays(6);
+        Long customerId = customerRepository.findAll().get(0).getId();
+
+        // Un upsert de más en dos días; solo se recalcula el primero
+        customerDailyRollupRepository.add(damaged, customerId, 1, 10, 99.0);
+        customerDailyRollupRepository.add(untouched, customerId, 1, 10, 99.0);
+
+        rollupService.rebuild(damaged, damaged);
+
+        List<String> after = customerDays();
+        assertThat(after.get(3)).isEqualTo(expected.get(3));
+        assertThat(after.get(6)).isNotEqualTo(expected.get(6));
+    }
+
+    @Test
+    void rebuildIsIdempotent() {
+        rollupService.rebuild(FIRST_DAY, LAST_DAY);
+        List<String> once = skuTotals();
+        String totals = customerTotals();
+
+        rollupService.rebuild(FIRST_DAY, LAST_DAY);
+
+        assertThat(skuTotals()).isEqualTo(once);
+        assertThat(customerTotals()).isEqualTo(totals);
+    }
+
+    private List<String> skuTotals() {
+        return salesDailyRollupRepository.sumBySkuOrderByUnits(FIRST_DAY, LAST_DAY, Pageable.unpaged()).stream()
+                .map(p -> p.getProductSku() + "|" + p.getUnits() + "|" + p.getRevenue() + "|" + p.getTickets())
+                .sorted()
+                .toList();
+    }
+
+    // Un valor por día del rango (los días sin ventas como "-") para comparar por posición
+    private List<String> customerDays() {
+        var rows = customerDailyRollupRepository.sumByDay(FIRST_DAY, LAST_DAY);
+        return FIRST_DAY.datesUntil(LAST_DAY.plusDays(1))
+                .map(day -> rows.stream()
+                        .filter(p -> p.getSaleDay().equals(day))
+                        .map(p -> p.getTickets() + "|" + p.getUnits() + "|" + p.getRevenue())
+                        .findFirst()
+                        .orElse("-"))
+                .toList();
+    }
+
+    private List<String> customerMonths() {
+        return customerDailyRollupRepository.sumByMonth(FIRST_DAY, LAST_DAY).stream()
+                .map(p -> p.getPeriodYear() + "-" + p.getPeriodMonth() + "|" + p.getTickets() + "|" + p.getUnits() + "|" + p.getRevenue())
+                .toList();
+    }
+
+    private String customerTotals() {
+        var t = customerDailyRollupRepository.sumTotals(FIRST_DAY, LAST_DAY);
+        return t.getTickets() + "|" + t.getUnits() + "|" + t.getRevenue();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.StockBatchResultDto;
+import com.example.msventas.Dto.StockBatchUpdateDto;
+import com.example.msventas.Dto.StockItemResultDto;
+import com.example.msventas.Dto.StockUpdateDto;
+import com.example.msventas.Entity.StockOutboxEvent;
+import com.example.msventas.Repository.StockOutboxRepository;
+import com.example.msventas.feign.InventoryClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockOutboxServiceTest {
+
+    private static final long ID = 7L;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private StockOutboxRepository outboxRepository;
+    private InventoryClient inventoryClient;
+    private ThreadPoolTaskExecutor executor;
+    private StockOutboxService service;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(StockOutboxRepository.class);
+        inventoryClient = mock(InventoryClient.class);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+
+        service = new StockOutboxService(outboxRepository, inventoryClient, objectMapper, executor,
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 60L);
+
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(event(0)));
+        when(outboxRepository.findById(ID)).thenReturn(Optional.of(event(0)));
+        when(outboxRepository.claim(eq(ID), anyString(), any(), any(), any(), any())).thenReturn(1);
+        when(outboxRepository.finish(eq(ID), anyString(), any(), anyInt(), any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void successfulSendIsRecordedAsSentWithTheClaimToken() {
+        when(inventoryClient.updateStockBatch(any())).thenReturn(result(applied("PRD-000001")));
+
+        service.relay();
+
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(outboxRepository).claim(eq(ID), claimToken.capture(), any(), any(),
+                eq(StockOutboxEvent.Status.PENDING), eq(StockOutboxEvent.Status.SENDING));
+        verify(outboxRepository).finish(eq(ID), eq(claimToken.getValue()), eq(StockOutboxEvent.Status.SENT),
+                eq(0), isNull(), any(), notNull());
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void failedSendGoesBackToPendingWithExponentialBackoff() {
+        when(outboxRepository.findById(ID)).thenReturn(Optional.of(event(2)));
+        doThrow(new IllegalStateException("ms-inventario-service no disponible"))
+                .when(inventoryClient).updateStockBatch(any());
+        LocalDateTime before = LocalDateTime.now();
+
+        service.relay();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).finish(eq(ID), anyString(), eq(StockOutboxEvent.Status.PENDING), eq(3),
+                eq("ms-inventario-service no disponible"), nextAttempt.capture(), isNull());
+        // 3.er intento fallido → 2^3 = 8 s
+        assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plusSeconds(8));
+        assertThat(nextAttempt.getValue()).isBefore(before.plusSeconds(10));
+    }
+
+    @Test
+    void backoffIsCappedAtFiveMinutes() {
+        ReflectionTestUtils.setField(service, "maxAttempts", 50);
+        when(outboxRepository.findById(ID)).thenReturn(Optional.of(event(20)));
+        doThrow(new IllegalStateException("timeout")).when(inventoryClient).updateStockBatch(any());
+        LocalDateTime before = LocalDateTime.now();
+
+        service.relay();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).finish(eq(ID), anyString(), eq(StockOutboxEvent.Status.PENDING), eq(21),
+                any(), nextAttempt.capture(), isNull());
+        assertThat(nextAttempt.getValue()).isBefore(before.plusSeconds(302));
+    }
+
+    @Test
+    void lastFailedAttemptMarksTheRowFailed() {
+        when(outboxRepository.findById(ID)).thenReturn(Optional.of(event(MAX_ATTEMPTS - 1)));
+        doThrow(new IllegalStateException("timeout")).when(inventoryClient).updateStockBatch(any());
+
+        service.relay();
+
+        verify(outboxRepository).finish(eq(ID), anyString(), eq(StockOutboxEvent.Status.FAILED),
+                eq(MAX_ATTEMPTS), eq("timeout"), any(), isNull());
+    }
+
+    @Test
+    void rejectedItemsParkTheRowAsFailedWithoutRetrying() {
+        when(inventoryClient.updateStockBatch(any())).thenReturn(result(
+                applied("PRD-000001"),
+                new StockItemResultDto("PRD-000002", "SALIDA", 3, null,
+                        StockItemResultDto.Status.REJECTED, "Stock insuficiente")
+        ));
+
+        service.relay();
+
+        ArgumentCaptor<String> lastError = ArgumentCaptor.forClass(String.class);
+        verify(outboxRepository).finish(eq(ID), anyString(), eq(StockOutboxEvent.Status.FAILED), eq(0),
+                lastError.capture(), any(), isNull());
+        assertThat(lastError.getValue()).contains("PRD-000002").contains("Stock insuficiente")
+                .doesNotContain("PRD-000001");
+    }
+
+    @Test
+    void duplicatesFromInventoryStillCountAsSent() {
+        when(inventoryClient.updateStockBatch(any())).thenReturn(result(
+                new StockItemResultDto("PRD-000001", "SALIDA", 2, null,
+                        StockItemResultDto.Status.DUPLICATE, "Movimiento ya aplicado")
+        ));
+
+        service.relay();
+
+        verify(outboxRepository).finish(eq(ID), anyString(), eq(StockOutboxEvent.Status.SENT), eq(0),
+                isNull(), any(), notNull());
+    }
+
+    @Test
+    void rowAlreadyClaimedElsewhereIsNotSent() {
+        when(outboxRepository.claim(eq(ID), anyString(), any(), any(), any(), any())).thenReturn(0);
+
+        service.relay();
+
+        verify(inventoryClient, never()).updateStockBatch(any());
+        verify(outboxRepository, never()).findById(any());
+        verify(outboxRepository, never()).finish(any(), any(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void relayAndImmediateSendOfTheSameRowCallInventoryOnce() {
+        // Solo el primer reclamo afecta la fila; el segundo (otro hilo/instancia) ve 0
+        doReturn(1).doReturn(0)
+                .when(outboxRepository).claim(eq(ID), anyString(), any(), any(), any(), any());
+        when(outboxRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenReturn(List.of(event(0), event(0)));
+        when(inventoryClient.updateStockBatch(any())).thenReturn(result(applied("PRD-000001")));
+
+        service.relay();
+
+        verify(outboxRepository, times(2)).claim(eq(ID), anyString(), any(), any(), any(), any());
+        verify(inventoryClient, times(1)).updateStockBatch(any());
+    }
+
+    @Test
+    void lostLeaseDoesNotOverwriteTheRow() {
+        when(inventoryClient.updateStockBatch(any())).thenReturn(result(applied("PRD-000001")));
+        // Otra instancia retomó la fila tras vencer el plazo: el token ya no coincide
+        when(outboxRepository.finish(eq(ID), anyString(), any(), anyInt(), any(), any(), any())).thenReturn(0);
+
+        service.relay();
+
+        verify(outboxRepository, times(1)).finish(eq(ID), anyString(), any(), anyInt(), any(), any(), any());
+        verify(outboxRepository, never()).save(any());
+    }
+
+    private StockOutboxEvent event(int attempts) {
+        StockBatchUpdateDto dto = new StockBatchUpdateDto("SALE-15", "Venta completada", List.of(
+                new StockUpdateDto("PRD-000001", 2, StockUpdateDto.MovementType.SALIDA, null, null),
+                new StockUpdateDto("PRD-000002", 3, StockUpdateDto.MovementType.SALIDA, null, null)
+        ));
+        StockOutboxEvent event = new StockOutboxEvent();
+        event.setId(ID);
+        event.setReference("SALE-15");
+        event.setAttempts(attempts);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(dto));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return event;
+    }
+
+    private static StockItemResultDto applied(String sku) {
+        return new StockItemResultDto(sku, "SALIDA", 2, 10, StockItemResultDto.Status.APPLIED, null);
+    }
+
+    private static StockBatchResultDto result(StockItemResultDto... items) {
+        List<StockItemResultDto> list = List.of(items);
+        int applied = (int) list.stream().filter(i -> i.status() == StockItemResultDto.Status.APPLIED).count();
+        int duplicates = (int) list.stream().filter(i -> i.status() == StockItemResultDto.Status.DUPLICATE).count();
+        return new StockBatchResultDto("SALE-15", applied, duplicates, list.size() - applied - duplicates, list);
+    }
+}
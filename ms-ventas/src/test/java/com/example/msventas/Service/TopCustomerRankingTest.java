@@ -0,0 +1,118 @@
+package com.example.msventas.Service;
+
+import com.example.msventas.Dto.TopCustomerDto;
+import com.example.msventas.Event.SaleCompletedEvent;
+import com.example.msventas.Repository.CustomerRepository;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TopCustomerRankingTest {
+
+    private CustomerRepository customerRepository;
+    private TopCustomerRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        ranking = new TopCustomerRanking(customerRepository);
+        ReflectionTestUtils.setField(ranking, "capacity", 3);
+    }
+
+    @Test
+    void refreshLoadsRankingOrderedBySalesThenId() {
+        when(customerRepository.findTopCustomers(any())).thenReturn(List.of(
+                row(2L, 5), row(1L, 5), row(3L, 9)));
+
+        ranking.refresh();
+
+        assertThat(ids(ranking.top(3))).containsExactly(3L, 1L, 2L);
+        assertThat(ids(ranking.top(2))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void topBeyondCapacityReturnsNull() {
+        assertThat(ranking.top(4)).isNull();
+    }
+
+    @Test
+    void refreshReplacesPreviousRanking() {
+        when(customerRepository.findTopCustomers(any())).thenReturn(List.of(row(1L, 5), row(2L, 4)));
+        ranking.refresh();
+        List<TopCustomerDto> before = ranking.top(3);
+
+        when(customerRepository.findTopCustomers(any())).thenReturn(List.of(row(3L, 7)));
+        ranking.refresh();
+
+        assertThat(ids(ranking.top(3))).containsExactly(3L);
+        // Lo ya leído no cambia: la recarga publica un estado nuevo
+        assertThat(ids(before)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void saleCompletedRepositionsCustomerWithoutDuplicating() {
+        when(customerRepository.findTopCustomers(any())).thenReturn(List.of(row(1L, 9), row(2L, 5), row(3L, 3)));
+        ranking.refresh();
+
+        when(customerRepository.findRankingEntry(3L)).thenReturn(Optional.of(row(3L, 10)));
+        ranking.onSaleCompleted(new SaleCompletedEvent(100L, 3L, LocalDateTime.now()));
+
+        assertThat(ranking.top(3)).extracting(TopCustomerDto::customerId, TopCustomerDto::totalSales)
+                .containsExactly(
+                        Tuple.tuple(3L, 10L),
+                        Tuple.tuple(1L, 9L),
+                        Tuple.tuple(2L, 5L));
+    }
+
+    @Test
+    void newCustomerEvictsLastWhenFull() {
+        when(customerRepository.findTopCustomers(any())).thenReturn(List.of(row(1L, 9), row(2L, 5), row(3L, 3)));
+        ranking.refresh();
+
+        when(customerRepository.findRankingEntry(4L)).thenReturn(Optional.of(row(4L, 6)));
+        ranking.onSaleCompleted(new SaleCompletedEvent(100L, 4L, LocalDateTime.now()));
+
+        assertThat(ids(ranking.top(3))).containsExactly(1L, 4L, 2L);
+    }
+
+    @Test
+    void newCustomerBelowLastIsIgnoredWhenFull() {
+        when(customerRepository.findTopCustomers(any())).thenReturn(List.of(row(1L, 9), row(2L, 5), row(3L, 3)));
+        ranking.refresh();
+
+        when(customerRepository.findRankingEntry(4L)).thenReturn(Optional.of(row(4L, 1)));
+        ranking.onSaleCompleted(new SaleCompletedEvent(100L, 4L, LocalDateTime.now()));
+
+        assertThat(ids(ranking.top(3))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void saleWithoutCustomerIsIgnored() {
+        ranking.onSaleCompleted(new SaleCompletedEvent(100L, null, LocalDateTime.now()));
+
+        assertThat(ranking.top(3)).isEmpty();
+    }
+
+    private static List<Long> ids(List<TopCustomerDto> rows) {
+        return rows.stream().map(TopCustomerDto::customerId).toList();
+    }
+
+    private static CustomerRepository.TopCustomerProjection row(Long id, long totalSales) {
+        return new CustomerRepository.TopCustomerProjection() {
+            @Override public Long getCustomerId() { return id; }
+            @Override public String getDni() { return "DNI-" + id; }
+            @Override public String getName() { return "Cliente " + id; }
+            @Override public Long getTotalSales() { return totalSales; }
+        };
+    }
+}